@@ -24,6 +24,7 @@ javac -classpath ./bin:./lib/* \
 ./src/tafl/modelo/*.java \
 ./src/tafl/control/*.java \
 ./src/tafl/textui/*.java \
+./src/tafl/ia/*.java \
 ./src/tafl/excepcion/*.java
 
 # Pausar la consola para poder ver los resultados.
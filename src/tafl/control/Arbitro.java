@@ -2,10 +2,13 @@
 package tafl.control;
 
 import tafl.excepcion.CoordenadasIncorrectasException;
+import tafl.modelo.InstantaneaTablero;
 import tafl.modelo.Jugada;
 import tafl.modelo.Tablero;
 import tafl.util.TipoPieza;
 import tafl.util.Color;
+import tafl.util.Coordenada;
+import tafl.util.MotivoRechazo;
 
 /**
  * Interfaz Arbitro. Define las operaciones que debe tener un arbitro. Es el
@@ -40,7 +43,15 @@ public interface Arbitro {
 	public void colocarPiezasConfiguracionInicial();
 
 	/**
-	 * Método consultarNumeroJugada. Consulta el número de jugada.
+	 * Método consultarVariante. Consulta la variante del juego.
+	 * 
+	 * @return Variante del juego.
+	 */
+	public Variante consultarVariante();
+
+	/**
+	 * Método consultarNumeroJugada. Consulta el número de jugada: cada
+	 * movimiento de cualquiera de los dos jugadores cuenta como una.
 	 * 
 	 * @return Número de jugada.
 	 */
@@ -53,6 +64,22 @@ public interface Arbitro {
 	 */
 	public Tablero consultarTablero();
 
+	/**
+	 * Método consultarInstantanea. Devuelve una instantánea inmutable del
+	 * tablero, que se puede leer desde otros hilos.
+	 * 
+	 * @return Instantánea del tablero.
+	 */
+	public InstantaneaTablero consultarInstantanea();
+
+	/**
+	 * Método consultarClaveZobrist. Consulta la clave Zobrist de la posición,
+	 * incluyendo el turno.
+	 * 
+	 * @return Clave Zobrist de la posición.
+	 */
+	public long consultarClaveZobrist();
+
 	/**
 	 * Método consultarTurno. Consulta el turno.
 	 * 
@@ -69,6 +96,92 @@ public interface Arbitro {
 	 */
 	public boolean esMovimientoLegal(Jugada jugada) throws CoordenadasIncorrectasException;
 
+	/**
+	 * Método esMovimientoLegal. Comprueba si una jugada codificada con
+	 * JugadaCompacta es legal.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return Si el movimiento es legal.
+	 */
+	public boolean esMovimientoLegal(int jugada);
+
+	/**
+	 * Método consultarMotivoRechazo. Devuelve por qué una jugada no es legal, o
+	 * MotivoRechazo.NINGUNO si lo es, sin lanzar excepciones por coordenadas
+	 * incorrectas.
+	 * 
+	 * @param jugada Jugada a comprobar.
+	 * @return Motivo de rechazo.
+	 */
+	public MotivoRechazo consultarMotivoRechazo(Jugada jugada);
+
+	/**
+	 * Método consultarMotivoRechazo. Devuelve por qué una jugada codificada con
+	 * JugadaCompacta no es legal, o MotivoRechazo.NINGUNO si lo es.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return Motivo de rechazo.
+	 */
+	public MotivoRechazo consultarMotivoRechazo(int jugada);
+
+	/**
+	 * Método consultarJugadasLegales. Comprueba de una vez la legalidad de varias
+	 * jugadas codificadas con JugadaCompacta sobre la posición actual.
+	 * 
+	 * @param jugadas   Jugadas codificadas.
+	 * @param numero    Número de jugadas a comprobar.
+	 * @param resultado Array donde se escribe el resultado, o nulo para crear uno.
+	 * @return Conjunto de bits con el bit i activo si la jugada i es legal.
+	 */
+	public long[] consultarJugadasLegales(int[] jugadas, int numero, long[] resultado);
+
+	/**
+	 * Método consultarDestinosLegales. Devuelve las casillas a las que puede
+	 * moverse la pieza de la coordenada indicada.
+	 * 
+	 * @param coordenada Coordenada de la pieza.
+	 * @return Máscara de casillas destino.
+	 */
+	public long[] consultarDestinosLegales(Coordenada coordenada);
+
+	/**
+	 * Método consultarDestinosLegales. Escribe en el array las casillas a las que
+	 * puede moverse la pieza de la coordenada indicada.
+	 * 
+	 * @param coordenada Coordenada de la pieza.
+	 * @param destinos   Array donde se escriben las casillas, o nulo para crear
+	 *                   uno.
+	 * @return Máscara de casillas destino.
+	 */
+	public long[] consultarDestinosLegales(Coordenada coordenada, long[] destinos);
+
+	/**
+	 * Método generarJugadasLegales. Escribe en el array las jugadas legales del
+	 * turno actual, codificadas con JugadaCompacta.
+	 * 
+	 * @param jugadas Array donde se escriben las jugadas.
+	 * @return Número de jugadas escritas.
+	 */
+	public int generarJugadasLegales(int[] jugadas);
+
+	/**
+	 * Método generarJugadasLegales. Escribe en el array las jugadas legales de la
+	 * pieza en la casilla indicada, codificadas con JugadaCompacta.
+	 * 
+	 * @param casilla Índice de la casilla de la pieza.
+	 * @param jugadas Array donde se escriben las jugadas.
+	 * @return Número de jugadas escritas.
+	 */
+	public int generarJugadasLegales(int casilla, int[] jugadas);
+
+	/**
+	 * Método tieneJugadasLegales. Comprueba si el turno actual tiene alguna jugada
+	 * legal.
+	 * 
+	 * @return Si el turno actual puede mover.
+	 */
+	public boolean tieneJugadasLegales();
+
 	/**
 	 * Método haGanadoAtacante. Comprueba si ha ganado el atacante.
 	 * 
@@ -83,6 +196,40 @@ public interface Arbitro {
 	 */
 	public boolean haGanadoRey();
 
+	/**
+	 * Método evaluarJugada. Calcula, sin realizarla, si una jugada codificada con
+	 * JugadaCompacta es legal, qué piezas capturaría y si ganaría la partida.
+	 * 
+	 * @param jugada    Jugada codificada.
+	 * @param resultado Resultado a reutilizar, o nulo para crear uno.
+	 * @return Resultado de la jugada.
+	 */
+	public ResultadoJugada evaluarJugada(int jugada, ResultadoJugada resultado);
+
+	/**
+	 * Método hayTablas. Comprueba si la partida ha terminado en tablas por
+	 * repetición de la posición o por el límite de jugadas sin captura.
+	 * 
+	 * @return Si la partida ha terminado en tablas.
+	 */
+	public boolean hayTablas();
+
+	/**
+	 * Método consultarRepeticiones. Consulta cuántas veces ha aparecido la
+	 * posición actual en la partida, contando la actual.
+	 * 
+	 * @return Número de apariciones de la posición actual.
+	 */
+	public int consultarRepeticiones();
+
+	/**
+	 * Método configurarLimiteJugadasSinCaptura. Fija el número de jugadas seguidas
+	 * sin captura que terminan la partida en tablas, o cero para no limitarlas.
+	 * 
+	 * @param limite Límite de jugadas sin captura.
+	 */
+	public void configurarLimiteJugadasSinCaptura(int limite);
+
 	/**
 	 * Método mover. Mueve una pieza.
 	 * 
@@ -91,6 +238,14 @@ public interface Arbitro {
 	 */
 	public void mover(Jugada jugada) throws CoordenadasIncorrectasException;
 
+	/**
+	 * Método mover. Mueve una pieza según una jugada codificada con
+	 * JugadaCompacta.
+	 * 
+	 * @param jugada Jugada codificada.
+	 */
+	public void mover(int jugada);
+
 	/**
 	 * Método realizarCapturasTrasMover. Realiza las capturas tras mover.
 	 * 
@@ -102,4 +257,26 @@ public interface Arbitro {
 	 * Método retroceder. Retrocede una jugada.
 	 */
 	public void retroceder();
+
+	/**
+	 * Método hacerJugada. Realiza una jugada ya validada, con sus capturas y el
+	 * cambio de turno, sin crear objetos.
+	 * 
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 */
+	public void hacerJugada(int origen, int destino);
+
+	/**
+	 * Método hacerJugada. Realiza una jugada ya validada, codificada con
+	 * JugadaCompacta, con sus capturas y el cambio de turno.
+	 * 
+	 * @param jugada Jugada codificada.
+	 */
+	public void hacerJugada(int jugada);
+
+	/**
+	 * Método deshacerJugada. Deshace la última jugada hecha con hacerJugada.
+	 */
+	public void deshacerJugada();
 }
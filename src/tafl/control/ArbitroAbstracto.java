@@ -1,18 +1,23 @@
 // Paquete en donde se encuentra el archivo.
 package tafl.control;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Stack;
 
 import tafl.excepcion.CoordenadasIncorrectasException;
-import tafl.modelo.Celda;
+import tafl.modelo.Capturas;
+import tafl.modelo.Geometria;
+import tafl.modelo.InstantaneaTablero;
 import tafl.modelo.Jugada;
+import tafl.modelo.JugadaCompacta;
 import tafl.modelo.Pieza;
 import tafl.modelo.Tablero;
+import tafl.modelo.Zobrist;
 import tafl.util.TipoPieza;
 import tafl.util.Color;
 import tafl.util.Coordenada;
-import tafl.util.TipoCelda;
+import tafl.util.MotivoRechazo;
+import tafl.util.Sentido;
 
 /**
  * Clase ArbitroAbstracto. Clase abstracta que implementa la interfaz Arbitro.
@@ -31,30 +36,57 @@ public abstract class ArbitroAbstracto implements Arbitro
 	 */
 	private Stack<Registro> historial;
 	/**
-	 * Número de filas del tablero. No se puede modificar.
+	 * Tablero del juego.
 	 */
-	private final int NUMERO_FILAS = 7;
+	protected Tablero tablero;
 	/**
-	 * Número de columnas del tablero. No se puede modificar.
+	 * Geometría del tablero. No cambia al retroceder, porque el tablero
+	 * restaurado es siempre del mismo tamaño.
 	 */
-	private final int NUMERO_COLUMNAS = 7;
+	private Geometria geometria;
 	/**
-	 * Tablero del juego.
+	 * Reglas de la variante compiladas para el tamaño del tablero. Todas las
+	 * reglas se consultan aquí, sin métodos redefinibles por cada juego.
 	 */
-	protected Tablero tablero;
+	private Reglas reglas;
+	/**
+	 * Casillas hostiles y casillas entre dos hostiles para cada color, que se
+	 * actualizan con cada pieza que el árbitro mueve, retira o coloca.
+	 */
+	private MapasHostiles mapas;
 	/**
-	 * Número de jugadas que se han realizado. Se inicializa a 0 y sirve para
-	 * consultar el turno.
+	 * Número de jugadas que se han realizado, contando cada movimiento de
+	 * cualquiera de los dos jugadores. Se inicializa a 0.
 	 */
 	private int jugadas;
 	/**
-	 * Última jugada realizada.
+	 * Última jugada realizada, codificada con JugadaCompacta, o -1 si todavía no
+	 * se ha movido.
 	 */
-	private Jugada ultimaJugada;
+	private int ultimaJugada = -1;
 	/**
 	 * Indica si el rey ha sido eliminado.
 	 */
 	private boolean reyEliminado = false;
+	/**
+	 * Posiciones de la partida desde las que se ha movido, con el número de veces
+	 * de cada una. La posición actual no está hasta que se mueve desde ella.
+	 */
+	private TablaRepeticiones repeticiones;
+	/**
+	 * Número de jugadas seguidas sin capturar ninguna pieza.
+	 */
+	private int jugadasSinCaptura;
+	/**
+	 * Número de jugadas seguidas sin captura que terminan la partida en tablas, o
+	 * cero si no hay límite.
+	 */
+	private int limiteJugadasSinCaptura;
+	/**
+	 * Indica si se ha movido con mover y todavía no se ha llamado a
+	 * cambiarTurno, por lo que el turno aún es el del jugador que ha movido.
+	 */
+	private boolean cambioTurnoPendiente;
 
 	/**
 	 * Color del turno actual.
@@ -62,22 +94,160 @@ public abstract class ArbitroAbstracto implements Arbitro
 	protected Color turno;
 
 	/**
-	 * Constructor de la clase. Si el tablero es nulo lanza una excepción no
-	 * comprobable IllegalArgumentException.
+	 * Cota superior del número de jugadas legales en una posición del tablero más
+	 * grande: cada casilla puede alcanzar como mucho las demás casillas de su fila
+	 * y su columna. Es el tamaño suficiente para el array de
+	 * generarJugadasLegales con cualquier tamaño de tablero.
+	 */
+	public static final int MAXIMO_JUGADAS = Geometria.NUMERO_MAXIMO_CASILLAS
+			* (2 * Geometria.TAMAÑO_MAXIMO - 2);
+	/**
+	 * Capacidad inicial de la pila de deshacer de hacerJugada. Solo crece si se
+	 * encadenan más jugadas sin deshacer.
+	 */
+	private static final int CAPACIDAD_INICIAL_PILA = 256;
+	/**
+	 * Número de veces que debe aparecer una misma posición, con el mismo turno,
+	 * para que la partida termine en tablas.
+	 */
+	public static final int REPETICIONES_TABLAS = 3;
+	/**
+	 * Sentidos en los que se buscan capturas. Se guarda el array para no copiarlo
+	 * en cada llamada a Sentido.values().
+	 */
+	private static final Sentido[] SENTIDOS = Sentido.values();
+	/**
+	 * Pila de deshacer: casilla origen de cada jugada hecha con hacerJugada.
+	 */
+	private int[] pilaOrigen;
+	/**
+	 * Pila de deshacer: casilla destino de cada jugada.
+	 */
+	private int[] pilaDestino;
+	/**
+	 * Pila de deshacer: piezas capturadas en cada jugada, con un bit por cada
+	 * sentido (por ordinal) en el que se retiró la pieza contigua al destino.
+	 */
+	private int[] pilaCapturas;
+	/**
+	 * Pila de deshacer: valor de reyEliminado antes de cada jugada.
+	 */
+	private boolean[] pilaReyEliminado;
+	/**
+	 * Pila de deshacer: jugadas seguidas sin captura antes de cada jugada.
+	 */
+	private int[] pilaSinCaptura;
+	/**
+	 * Número de jugadas apiladas en la pila de deshacer.
+	 */
+	private int profundidad;
+	/**
+	 * Máscara de trabajo con las piezas enemigas, para calcular las capturas sin
+	 * reservar memoria en cada jugada.
+	 */
+	private long[] mascaraEnemigas;
+	/**
+	 * Máscara de trabajo con las casillas ocupadas.
+	 */
+	private long[] mascaraOcupadas;
+	/**
+	 * Máscara de trabajo con las casillas ocupadas por atacantes, para
+	 * comprobar si el rey está rodeado.
+	 */
+	private long[] mascaraAtacantes;
+	/**
+	 * Máscara de trabajo con las casillas que serían hostiles tras la jugada que
+	 * se evalúa con evaluarJugada.
+	 */
+	private long[] mascaraHostilesJugada;
+	/**
+	 * Máscara de trabajo con las piezas cuya movilidad se comprueba.
+	 */
+	private long[] mascaraPiezas;
+	/**
+	 * Máscaras de trabajo con el frente de avance de las piezas en un sentido.
+	 * Se alternan, porque un desplazamiento no se puede hacer sobre la propia
+	 * máscara.
+	 */
+	private long[] mascaraFrente;
+	/**
+	 * Segunda máscara del frente de avance.
+	 */
+	private long[] mascaraAvance;
+	/**
+	 * Máscara sin casillas marcadas: las casillas reservadas para el rey.
+	 */
+	private long[] mascaraVacia;
+	/**
+	 * Comprobación por lotes: destinos legales de la pieza de cada casilla
+	 * origen. Se reserva con la primera comprobación por lotes.
+	 */
+	private long[][] destinosPorOrigen;
+	/**
+	 * Comprobación por lotes: número del último lote en el que se calcularon los
+	 * destinos de cada casilla origen. Evita borrar la tabla en cada lote.
+	 */
+	private int[] lotePorOrigen;
+	/**
+	 * Número del lote de comprobación en curso.
+	 */
+	private int lote;
+
+	/**
+	 * Constructor de la clase, con las reglas de Variante.GENERICA, que valen
+	 * para cualquier tamaño de tablero. Si el tablero es nulo lanza una excepción
+	 * no comprobable IllegalArgumentException.
 	 * 
 	 * @param tablero Tablero del juego.
 	 */
 	public ArbitroAbstracto(Tablero tablero) {
+		this(tablero, Variante.GENERICA);
+	}
+
+	/**
+	 * Constructor de la clase con las reglas de la variante indicada, que se
+	 * compilan para el tamaño del tablero. Si el tablero o la variante son nulos,
+	 * o la variante tiene una configuración inicial de otro tamaño, lanza una
+	 * excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param tablero  Tablero del juego.
+	 * @param variante Variante del juego.
+	 */
+	public ArbitroAbstracto(Tablero tablero, Variante variante) {
 		this.tablero = tablero;
 		if (tablero == null) {
 			throw new IllegalArgumentException("Tablero nulo");
 		}
+		if (variante == null) {
+			throw new IllegalArgumentException("Variante nula");
+		}
+		this.geometria = tablero.consultarGeometria();
+		this.reglas = new Reglas(variante, geometria);
+		this.mapas = new MapasHostiles(reglas, geometria);
 		this.jugadas = 0;
 		this.historial = new Stack<Registro>();
+		this.pilaOrigen = new int[CAPACIDAD_INICIAL_PILA];
+		this.pilaDestino = new int[CAPACIDAD_INICIAL_PILA];
+		this.pilaCapturas = new int[CAPACIDAD_INICIAL_PILA];
+		this.pilaReyEliminado = new boolean[CAPACIDAD_INICIAL_PILA];
+		this.pilaSinCaptura = new int[CAPACIDAD_INICIAL_PILA];
+		this.profundidad = 0;
+		this.repeticiones = new TablaRepeticiones();
+		this.jugadasSinCaptura = 0;
+		this.limiteJugadasSinCaptura = 0;
+		this.mascaraEnemigas = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraOcupadas = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraAtacantes = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraHostilesJugada = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraPiezas = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraFrente = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraAvance = new long[geometria.consultarNumeroPalabras()];
+		this.mascaraVacia = new long[geometria.consultarNumeroPalabras()];
 	}
 
 	/**
-	 * Cambia el turno al otro contrincante.
+	 * Cambia el turno al otro contrincante. No cambia el número de jugadas, que
+	 * se cuenta al mover.
 	 */
 	public void cambiarTurno() {
 		if (turno == Color.NEGRO) {
@@ -85,7 +255,7 @@ public abstract class ArbitroAbstracto implements Arbitro
 		} else {
 			turno = Color.NEGRO;
 		}
-		jugadas++;
+		cambioTurnoPendiente = false;
 	}
 
 	/**
@@ -111,31 +281,54 @@ public abstract class ArbitroAbstracto implements Arbitro
 		}
 
 		this.turno = turno;
+		this.cambioTurnoPendiente = false;
 
 		for (int i = 0; i < tipo.length; i++) {
 			for (int j = 0; j < coordenadas[i].length; j++) {
-				Coordenada coordenada = new Coordenada(coordenadas[i][j], coordenadas[i][j + 1]);
+				Coordenada coordenada = Tablero.consultarCoordenada(coordenadas[i][j], coordenadas[i][j + 1]);
 
-				if (coordenada.fila() < 0 || coordenada.fila() > NUMERO_FILAS - 1 || coordenada.columna() < 0
-						|| coordenada.columna() > NUMERO_COLUMNAS - 1) {
+				if (!tablero.estaEnTablero(coordenada)) {
 					throw new CoordenadasIncorrectasException("Coordenadas incorrectas");
 				}
-				tablero.colocar(new Pieza(tipo[i]), coordenada);
+				tablero.colocar(Pieza.obtenerPieza(tipo[i]), coordenada);
 				j++;
 			}
 		}
 	}
 
 	/**
-	 * coloca las piezas correspondientes a la configuración de inicio del juego con
-	 * sus 13 piezas (ver Ilustración 1), e inicializando siempre el turno para el
-	 * atacante con piezas negras.
+	 * coloca las piezas correspondientes a la configuración de inicio del juego
+	 * según la variante (ver Ilustración 1 para el Brandubh), e inicializando
+	 * siempre el turno para el atacante con piezas negras. Si la variante no
+	 * tiene configuración inicial solo se inicializa el turno.
 	 */
 	public void colocarPiezasConfiguracionInicial() {
+		this.turno = Color.NEGRO;
+		if (reglas.tieneConfiguracionInicial()) {
+			for (TipoPieza tipoPieza : TipoPieza.values()) {
+				long[] mascara = reglas.consultarConfiguracion(tipoPieza);
+				for (int casilla = Geometria.consultarSiguiente(mascara, 0); casilla >= 0; casilla = Geometria
+						.consultarSiguiente(mascara, casilla + 1)) {
+					tablero.eliminarPieza(casilla);
+					tablero.colocarPieza(tipoPieza, casilla);
+				}
+			}
+		}
 	}
 
 	/**
-	 * Consulta el número de jugadas que se han realizado.
+	 * Devuelve la variante del juego que aplica el árbitro.
+	 * 
+	 * @return variante Variante del juego.
+	 */
+	public Variante consultarVariante() {
+		return reglas.consultarVariante();
+	}
+
+	/**
+	 * Consulta el número de jugadas que se han realizado. Cada movimiento de
+	 * cualquiera de los dos jugadores cuenta como una jugada, se haga con mover o
+	 * con hacerJugada, y retroceder y deshacerJugada restan la jugada deshecha.
 	 * 
 	 * @return jugadas Número de jugadas.
 	 */
@@ -152,6 +345,32 @@ public abstract class ArbitroAbstracto implements Arbitro
 		return this.tablero;
 	}
 
+	/**
+	 * Devuelve una instantánea inmutable del tablero actual, que comparte con la
+	 * anterior las máscaras que no han cambiado. A diferencia de
+	 * consultarTablero, se puede entregar a otros hilos (espectadores, análisis,
+	 * persistencia) mientras la partida sigue, sin bloqueos ni copias completas.
+	 * 
+	 * @return instantanea Instantánea del tablero.
+	 */
+	public InstantaneaTablero consultarInstantanea() {
+		return tablero.consultarInstantanea();
+	}
+
+	/**
+	 * Devuelve la clave Zobrist de la posición actual: las piezas del tablero y el
+	 * turno. Dos posiciones iguales con el mismo turno tienen la misma clave.
+	 * 
+	 * @return clave Clave Zobrist de la posición.
+	 */
+	public long consultarClaveZobrist() {
+		long clave = tablero.consultarClaveZobrist();
+		if (turno == Color.BLANCO) {
+			clave ^= Zobrist.CLAVE_TURNO_BLANCO;
+		}
+		return clave;
+	}
+
 	/**
 	 * Devuelve el turno actual, que puede realizar la siguiente jugada.
 	 * 
@@ -166,179 +385,435 @@ public abstract class ArbitroAbstracto implements Arbitro
 	 * Comprueba la legalidad de la jugada, según las reglas del juego. Debe aplicar
 	 * solo las reglas de los movimientos descritas en la Sec. 1., pero sin
 	 * comprobar si la partida ha finalizado previamente o no. Si la jugada vale
-	 * nulo, lanza una excepción no comprobable IllegalArgumentException.
+	 * nulo, lanza una excepción no comprobable IllegalArgumentException. Es un
+	 * envoltorio de consultarMotivoRechazo(Jugada) que mantiene la excepción para
+	 * las coordenadas fuera del tablero.
 	 * 
 	 * @param jugada Tipo de jugada.
 	 * @return esMovimientoLegal Será true o false.
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
 	 */
 	public boolean esMovimientoLegal(Jugada jugada) throws CoordenadasIncorrectasException {
+		MotivoRechazo motivo = consultarMotivoRechazo(jugada);
+		if (motivo == MotivoRechazo.FUERA_DEL_TABLERO) {
+			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
+		}
+		return motivo == MotivoRechazo.NINGUNO;
+	}
+
+	/**
+	 * Comprueba la legalidad de una jugada codificada con JugadaCompacta, con las
+	 * mismas reglas que esMovimientoLegal(Jugada).
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return esMovimientoLegal Será true o false.
+	 * @see consultarMotivoRechazo Ver la función consultarMotivoRechazo.
+	 */
+	public boolean esMovimientoLegal(int jugada) {
+		return consultarMotivoRechazo(jugada) == MotivoRechazo.NINGUNO;
+	}
+
+	/**
+	 * Devuelve por qué la jugada no es legal, o MotivoRechazo.NINGUNO si lo es,
+	 * sin lanzar excepciones: las coordenadas fuera del tablero se indican con
+	 * MotivoRechazo.FUERA_DEL_TABLERO. Si la jugada vale nulo, lanza una excepción
+	 * no comprobable IllegalArgumentException.
+	 * 
+	 * @param jugada Jugada a comprobar.
+	 * @return motivo Motivo de rechazo o NINGUNO.
+	 */
+	public MotivoRechazo consultarMotivoRechazo(Jugada jugada) {
 		if (jugada == null) {
 			throw new IllegalArgumentException("Jugada nula");
 		}
-		boolean esMovimientoLegal = true;
-		Celda origen = jugada.consultarOrigen();
-		Celda destino = jugada.consultarDestino();
-		Pieza pieza = destino.consultarPieza();
-		// En modo grafico, me saca null en "origen", por lo que lo he puesto asi
-		// para que funcione en ambos modos. IMPRESIONANTE DIOS.
-		if (pieza == null) {
-			pieza = origen.consultarPieza();
-			if (pieza == null) {
-				esMovimientoLegal = false;
-				return esMovimientoLegal;
-			}
+		int origen = tablero.consultarCasilla(jugada.consultarOrigen().consultarCoordenada());
+		int destino = tablero.consultarCasilla(jugada.consultarDestino().consultarCoordenada());
+		if (origen < 0 || destino < 0) {
+			return MotivoRechazo.FUERA_DEL_TABLERO;
+		}
+		return consultarMotivoRechazo(JugadaCompacta.codificar(origen, destino, jugada.consultarSentido()));
+	}
+
+	/**
+	 * Devuelve por qué la jugada codificada con JugadaCompacta no es legal, o
+	 * MotivoRechazo.NINGUNO si lo es. No lanza ni captura excepciones. El sentido
+	 * guardado en la jugada se valida con un único test de bit sobre el rayo del
+	 * origen, sin volver a calcularlo.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return motivo Motivo de rechazo o NINGUNO.
+	 */
+	public MotivoRechazo consultarMotivoRechazo(int jugada) {
+		int origen = JugadaCompacta.consultarOrigen(jugada);
+		int destino = JugadaCompacta.consultarDestino(jugada);
+		if (origen >= geometria.consultarNumeroCasillas() || destino >= geometria.consultarNumeroCasillas()) {
+			return MotivoRechazo.FUERA_DEL_TABLERO;
 		}
-		Color color = pieza.consultarColor();
+		TipoPieza tipoPieza = tablero.consultarTipoPieza(origen);
 		// Se hacen las siguientes comprobaciones:
 		// Comprobar que la celda origen no está vacía.
-		// Comprobar si se está moviendo una pieza del mismo color que el turno.
-		// Comprobar que no se está intentado superponer una pieza encima de otra.
-		// Comprobar que el movimiento es horizontal o vertical.
+		if (tipoPieza == null) {
+			return MotivoRechazo.ORIGEN_VACIO;
+		}
 		// Comprobar que el color de la pieza es el mismo que el color del turno.
-		if (origen.consultarPieza() == null || pieza.consultarColor() != color
-				|| jugada.consultarDestino().consultarPieza() != null || !jugada.esMovimientoHorizontalOVertical()
-				|| color != turno) {
-			esMovimientoLegal = false;
-		}
-		// Comprobar que las piezas que no son reyes se mueven hacia alguna provincia o
-		// trono
-		switch (destino.consultarTipoCelda()) {
-		case PROVINCIA:
-		case TRONO:
-			if (pieza.consultarTipoPieza() != TipoPieza.REY) {
-				esMovimientoLegal = false;
+		if (tipoPieza.consultarColor() != turno) {
+			return MotivoRechazo.PIEZA_SIN_TURNO;
+		}
+		// Comprobar que no se está intentado superponer una pieza encima de otra.
+		if (tablero.estaOcupada(destino)) {
+			return MotivoRechazo.DESTINO_OCUPADO;
+		}
+		// Comprobar que las piezas que no son reyes no se mueven a una provincia o
+		// al trono.
+		if (tipoPieza != TipoPieza.REY && reglas.esReservada(destino)) {
+			return MotivoRechazo.CASILLA_RESERVADA;
+		}
+		// Comprueba que se mueven de 1 en 1 o varias celdas, dependiendo del juego.
+		MotivoRechazo motivo = comprobarCamino(origen, destino, JugadaCompacta.consultarSentido(jugada));
+		// Comprobar que la pieza no se coloca entre dos casillas hostiles.
+		if (motivo == MotivoRechazo.NINGUNO && mapas.estaEntreHostiles(tablero, destino, turno)) {
+			motivo = MotivoRechazo.ENTRE_DOS_HOSTILES;
+		}
+		return motivo;
+	}
+
+	/**
+	 * Comprueba de una vez la legalidad de varias jugadas codificadas con
+	 * JugadaCompacta sobre la posición actual, con las mismas reglas que
+	 * esMovimientoLegal(int). Lo que depende solo de la posición, como las
+	 * casillas entre dos hostiles, se calcula una vez para todo el lote, y los
+	 * destinos legales de cada pieza se calculan la primera vez que aparece como
+	 * origen y se reutilizan para el resto de sus jugadas. Así cada jugada
+	 * adicional cuesta unos pocos tests de bit. Si el array de jugadas vale nulo,
+	 * lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param jugadas   Jugadas codificadas.
+	 * @param numero    Número de jugadas a comprobar del principio del array.
+	 * @param resultado Array donde se escribe el resultado, o nulo para crear
+	 *                  uno. Si es demasiado pequeño también se crea uno nuevo.
+	 * @return resultado Conjunto de bits con el bit i activo si la jugada i es
+	 *         legal.
+	 */
+	public long[] consultarJugadasLegales(int[] jugadas, int numero, long[] resultado) {
+		if (jugadas == null) {
+			throw new IllegalArgumentException("Array de jugadas nulo");
+		}
+		int palabras = (numero + Long.SIZE - 1) / Long.SIZE;
+		if (resultado == null || resultado.length < palabras) {
+			resultado = new long[palabras];
+		} else {
+			Arrays.fill(resultado, 0, palabras, 0L);
+		}
+		if (turno == null || numero == 0) {
+			return resultado;
+		}
+		prepararLote();
+		int numeroCasillas = geometria.consultarNumeroCasillas();
+		for (int i = 0; i < numero; i++) {
+			int jugada = jugadas[i];
+			int origen = JugadaCompacta.consultarOrigen(jugada);
+			int destino = JugadaCompacta.consultarDestino(jugada);
+			Sentido sentido = JugadaCompacta.consultarSentido(jugada);
+			if (origen >= numeroCasillas || destino >= numeroCasillas || sentido == null
+					|| !geometria.estaEnRayo(sentido, origen, destino)) {
+				continue;
+			}
+			if (lotePorOrigen[origen] != lote) {
+				calcularDestinos(origen, destinosPorOrigen[origen]);
+				lotePorOrigen[origen] = lote;
+			}
+			if (Geometria.estaMarcada(destinosPorOrigen[origen], destino)) {
+				resultado[i / Long.SIZE] |= 1L << i;
 			}
-			break;
-		default:
-			break;
 		}
-		if (esMovimientoLegal) {
-			// Comprueba que se mueven de 1 en 1 o varias celdas, dependiendo del juego.
-			esMovimientoLegal = consultarPiezaHorizontal(esMovimientoLegal, jugada, origen);
-			esMovimientoLegal = consultarPiezaVertical(esMovimientoLegal, jugada, origen);
+		return resultado;
+	}
+
+	/**
+	 * Devuelve las casillas a las que puede moverse la pieza de la coordenada
+	 * indicada, en una máscara nueva. Ver consultarDestinosLegales(Coordenada,
+	 * long[]).
+	 * 
+	 * @param coordenada Coordenada de la pieza.
+	 * @return destinos Máscara de casillas destino.
+	 */
+	public long[] consultarDestinosLegales(Coordenada coordenada) {
+		return consultarDestinosLegales(coordenada, null);
+	}
+
+	/**
+	 * Escribe en el array las casillas a las que puede moverse la pieza de la
+	 * coordenada indicada, con las mismas reglas que esMovimientoLegal: sus rayos
+	 * hasta la primera pieza, limitados al alcance del juego, sin las casillas
+	 * reservadas al rey ni las que quedan entre dos hostiles. El resultado es
+	 * una máscara con un bit por casilla (fila * número de columnas + columna),
+	 * que se recorre con Geometria.consultarSiguiente. Pensado para resaltar los
+	 * destinos de una pieza en una interfaz: reutilizando el array no reserva
+	 * memoria. Si la coordenada está fuera del tablero o no tiene una pieza del
+	 * turno actual, la máscara queda vacía. Si la coordenada vale nulo, lanza una
+	 * excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param coordenada Coordenada de la pieza.
+	 * @param destinos   Array donde se escriben las casillas, o nulo (o de menos
+	 *                   de consultarNumeroPalabras() posiciones) para crear uno.
+	 * @return destinos Máscara de casillas destino.
+	 */
+	public long[] consultarDestinosLegales(Coordenada coordenada, long[] destinos) {
+		int origen = tablero.consultarCasilla(coordenada);
+		if (destinos == null || destinos.length < geometria.consultarNumeroPalabras()) {
+			destinos = new long[geometria.consultarNumeroPalabras()];
 		}
-		// Para evitar que se alarge la comprobación, comprobamos que no es false.
-		if (esMovimientoLegal) {
-			// Comprobar que no hay piezas entre medias del origen y el destino.
-			esMovimientoLegal = consultarMoverEntreDosPiezasOtroColor(esMovimientoLegal, jugada, destino, pieza);
+		if (origen < 0) {
+			Arrays.fill(destinos, 0L);
+		} else {
+			calcularDestinos(origen, destinos);
 		}
-		return esMovimientoLegal;
+		return destinos;
 	}
 
 	/**
-	 * Comprueba la pieza se mueve de 1 en 1 celda en horizontal.
+	 * Empieza un lote de comprobaciones: invalida los destinos calculados en el
+	 * lote anterior.
+	 */
+	private void prepararLote() {
+		if (destinosPorOrigen == null) {
+			destinosPorOrigen = new long[geometria.consultarNumeroCasillas()][geometria.consultarNumeroPalabras()];
+			lotePorOrigen = new int[geometria.consultarNumeroCasillas()];
+		}
+		lote++;
+	}
+
+	/**
+	 * Escribe en la máscara los destinos legales de la pieza en la casilla
+	 * origen, usando el mapa de casillas entre hostiles del turno. Si la casilla
+	 * no tiene una pieza del turno la máscara queda vacía.
 	 * 
-	 * @param esMovimientoLegal Es true o false.
-	 * @param jugada            Tipo de jugada.
-	 * @param origen            Celda origen.
-	 * @return esMovimientoLegal Será true o false.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see esMovimientoLegal Ver la función esMovimientoLegal.
+	 * @param origen   Índice de la casilla de la pieza.
+	 * @param destinos Máscara donde se escriben los destinos.
 	 */
-	protected boolean consultarPiezaHorizontal(boolean esMovimientoLegal, Jugada jugada, Celda origen)
-			throws CoordenadasIncorrectasException {
-		return esMovimientoLegal;
+	private void calcularDestinos(int origen, long[] destinos) {
+		Arrays.fill(destinos, 0L);
+		TipoPieza tipoPieza = tablero.consultarTipoPieza(origen);
+		if (tipoPieza == null || tipoPieza.consultarColor() != turno) {
+			return;
+		}
+		boolean esRey = tipoPieza == TipoPieza.REY;
+		int alcance = reglas.consultarAlcance();
+		long[] suicidas = mapas.consultarEntreHostiles(tablero, turno);
+		for (Sentido sentido : SENTIDOS) {
+			int destino = geometria.consultarVecino(sentido, origen);
+			for (int paso = 0; paso < alcance && destino >= 0 && !tablero.estaOcupada(destino); paso++) {
+				if ((esRey || !reglas.esReservada(destino)) && !Geometria.estaMarcada(suicidas, destino)) {
+					Geometria.marcar(destinos, destino);
+				}
+				destino = geometria.consultarVecino(sentido, destino);
+			}
+		}
 	}
 
 	/**
-	 * Comprueba que no hay piezas entre el origen y el destino en vertical.
+	 * Traduce una jugada con celdas a su forma compacta. Si la jugada vale nulo,
+	 * lanza una excepción no comprobable IllegalArgumentException; si alguna de
+	 * sus coordenadas está fuera del tablero, lanza CoordenadasIncorrectasException.
 	 * 
-	 * @param esMovimientoLegal Es true o false.
-	 * @param jugada            Tipo de jugada.
-	 * @param origen            Celda origen.
-	 * @return esMovimientoLegal Será true o false.
+	 * @param jugada Jugada a traducir.
+	 * @return jugada Jugada codificada.
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see esMovimientoLegal Ver la función esMovimientoLegal.
 	 */
-	protected boolean consultarPiezaVertical(boolean esMovimientoLegal, Jugada jugada, Celda origen)
-			throws CoordenadasIncorrectasException {
-		return esMovimientoLegal;
+	private int codificar(Jugada jugada) throws CoordenadasIncorrectasException {
+		if (jugada == null) {
+			throw new IllegalArgumentException("Jugada nula");
+		}
+		int origen = tablero.consultarCasilla(jugada.consultarOrigen().consultarCoordenada());
+		int destino = tablero.consultarCasilla(jugada.consultarDestino().consultarCoordenada());
+		if (origen < 0 || destino < 0) {
+			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
+		}
+		return JugadaCompacta.codificar(origen, destino, jugada.consultarSentido());
 	}
 
 	/**
-	 * Comprueba que no se está intentando mover una pieza entre dos piezas de otro
-	 * color.
+	 * Comprueba que el destino está en el rayo que sale del origen en el sentido
+	 * indicado, que la distancia no supera el alcance del juego y que no hay
+	 * piezas entre ambos. Basta con buscar la primera pieza en ese rayo y
+	 * comprobar que está más lejos que el destino.
 	 * 
-	 * @param esMovimientoLegal Es true o false.
-	 * @param jugada            Tipo de jugada.
-	 * @param destino           Celda destino.
-	 * @param pieza             Pieza, para el color.
-	 * @return esMovimientoLegal Será true o false.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see esMovimientoLegal Ver la función esMovimientoLegal.
-	 */
-	private boolean consultarMoverEntreDosPiezasOtroColor(boolean esMovimientoLegal, Jugada jugada, Celda destino,
-			Pieza pieza) throws CoordenadasIncorrectasException {
-		// Si una pieza intenta moverse al espacio entre dos piezas de otro color, no se
-		// puede.
-		List<Celda> celdasContiguas = tablero.consultarCeldasContiguas(destino.consultarCoordenada());
-		for (int i = 0; i < celdasContiguas.size(); i++) {
-			if (!sePuedeComer(celdasContiguas.get(i), pieza.consultarColor(),
-					jugada.consultarDestino().consultarCoordenada())) {
-				esMovimientoLegal = consultarMoverEntreDosPiezasOtroColorIguales(esMovimientoLegal, celdasContiguas,
-						pieza);
-				if (!esMovimientoLegal) {
-					break;
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 * @param sentido Sentido del movimiento, o nulo si no están alineados.
+	 * @return motivo Motivo de rechazo o NINGUNO si el camino está libre.
+	 * @see consultarMotivoRechazo Ver la función consultarMotivoRechazo.
+	 */
+	private MotivoRechazo comprobarCamino(int origen, int destino, Sentido sentido) {
+		if (sentido == null || !geometria.estaEnRayo(sentido, origen, destino)) {
+			return MotivoRechazo.NO_ALINEADO;
+		}
+		int distancia = geometria.consultarDistancia(origen, destino);
+		if (distancia > reglas.consultarAlcance()) {
+			return MotivoRechazo.FUERA_DE_ALCANCE;
+		}
+		int bloqueo = tablero.consultarPrimeraOcupada(sentido, origen);
+		if (bloqueo >= 0 && geometria.consultarDistancia(origen, bloqueo) <= distancia) {
+			return MotivoRechazo.CAMINO_BLOQUEADO;
+		}
+		return MotivoRechazo.NINGUNO;
+	}
+
+	/**
+	 * Genera todas las jugadas legales del turno actual y las escribe codificadas
+	 * con JugadaCompacta en el array indicado, que se puede reutilizar entre
+	 * llamadas. Aplica las mismas reglas que esMovimientoLegal, pero recorriendo
+	 * solo las casillas alcanzables por cada pieza, sin construir jugadas ni
+	 * celdas. Si el array vale nulo, lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param jugadas Array donde se escriben las jugadas. Con MAXIMO_JUGADAS
+	 *                posiciones, o con las que indica
+	 *                Geometria.consultarMaximoJugadas para este tablero, caben
+	 *                todas.
+	 * @return numero Número de jugadas escritas.
+	 */
+	public int generarJugadasLegales(int[] jugadas) {
+		if (jugadas == null) {
+			throw new IllegalArgumentException("Array de jugadas nulo");
+		}
+		int numero = 0;
+		if (turno != null) {
+			for (int casilla = tablero.consultarSiguientePieza(turno, 0); casilla >= 0; casilla = tablero
+					.consultarSiguientePieza(turno, casilla + 1)) {
+				numero = generarJugadasPieza(casilla, jugadas, numero);
+			}
+		}
+		return numero;
+	}
+
+	/**
+	 * Genera las jugadas legales de la pieza situada en la casilla indicada y las
+	 * escribe codificadas en el array. Si la casilla no tiene una pieza del turno
+	 * actual no escribe ninguna. Si el array vale nulo, lanza una excepción no
+	 * comprobable IllegalArgumentException.
+	 * 
+	 * @param casilla Índice de la casilla de la pieza.
+	 * @param jugadas Array donde se escriben las jugadas.
+	 * @return numero Número de jugadas escritas.
+	 */
+	public int generarJugadasLegales(int casilla, int[] jugadas) {
+		if (jugadas == null) {
+			throw new IllegalArgumentException("Array de jugadas nulo");
+		}
+		int numero = 0;
+		if (casilla >= 0 && casilla < geometria.consultarNumeroCasillas() && turno != null
+				&& tablero.consultarSiguientePieza(turno, casilla) == casilla) {
+			numero = generarJugadasPieza(casilla, jugadas, 0);
+		}
+		return numero;
+	}
+
+	/**
+	 * Añade al array las jugadas legales de la pieza en la casilla origen. En cada
+	 * sentido se avanza casilla a casilla hasta la primera pieza que bloquea el
+	 * rayo, el borde o el alcance del juego, por lo que el coste depende de las
+	 * casillas alcanzables y no del tamaño del tablero.
+	 * 
+	 * @param origen  Índice de la casilla de la pieza.
+	 * @param jugadas Array donde se escriben las jugadas.
+	 * @param numero  Número de jugadas ya escritas en el array.
+	 * @return numero Número de jugadas escritas tras añadir las de la pieza.
+	 * @see generarJugadasLegales Ver la función generarJugadasLegales.
+	 */
+	private int generarJugadasPieza(int origen, int[] jugadas, int numero) {
+		boolean esRey = tablero.consultarTipoPieza(origen) == TipoPieza.REY;
+		int alcance = reglas.consultarAlcance();
+		long[] suicidas = mapas.consultarEntreHostiles(tablero, turno);
+		for (Sentido sentido : SENTIDOS) {
+			// El avance termina en la pieza que bloquea el rayo, o en el borde si no
+			// hay ninguna (-1).
+			int bloqueo = tablero.consultarPrimeraOcupada(sentido, origen);
+			int destino = geometria.consultarVecino(sentido, origen);
+			for (int paso = 0; paso < alcance && destino >= 0 && destino != bloqueo; paso++) {
+				// Las piezas pueden pasar por el trono vacío, pero no detenerse en él.
+				if ((esRey || !reglas.esReservada(destino)) && !Geometria.estaMarcada(suicidas, destino)) {
+					jugadas[numero++] = JugadaCompacta.codificar(origen, destino, sentido);
 				}
-			} else if (sePuedeComerREY(celdasContiguas.get(i), pieza.consultarColor(),
-					jugada.consultarDestino().consultarCoordenada())
-					&& celdasContiguas.get(i).consultarPieza().consultarTipoPieza() != TipoPieza.REY) {
-				esMovimientoLegal = false;
+				destino = geometria.consultarVecino(sentido, destino);
 			}
 		}
-		return esMovimientoLegal;
+		return numero;
 	}
 
 	/**
-	 * Comprueba que no se está intentando mover una pieza entre dos piezas de otro
-	 * color y las celdas especiales. Es para no repetir 3 veces el mismo código en
-	 * la función consultarMoverEntreDosPiezasOtroColor.
+	 * Comprueba si el turno actual tiene alguna jugada legal, sin generarlas. Se
+	 * avanzan a la vez todas las piezas del turno con desplazamientos de
+	 * máscaras, un sentido tras otro y casilla a casilla, y se termina en cuanto
+	 * alguna llega a una casilla en la que puede detenerse. Lo habitual es que
+	 * baste con el primer paso del primer sentido. El rey se comprueba aparte,
+	 * porque puede detenerse en las casillas reservadas.
 	 * 
-	 * @param esMovimientoLegal Es true o false.
-	 * @param celdasContiguas   Celdas contiguas.
-	 * @param pieza             Pieza, para el color.
-	 * @return esMovimientoLegal Será true o false.
-	 * @see consultarMoverEntreDosPiezasOtroColor Ver la función
-	 *      consultarMoverEntreDosPiezasOtroColor.
-	 */
-	private boolean consultarMoverEntreDosPiezasOtroColorIguales(boolean esMovimientoLegal, List<Celda> celdasContiguas,
-			Pieza pieza) {
-		for (int i = 0; i < celdasContiguas.size(); i++) {
-			for (int j = 0; j < celdasContiguas.size(); j++) {
-				if (celdasContiguas.get(i) == null || celdasContiguas.get(j) == null) {
-					esMovimientoLegal = true;
-					break;
+	 * @return tieneJugadasLegales Será true o false.
+	 */
+	public boolean tieneJugadasLegales() {
+		if (turno == null) {
+			return false;
+		}
+		long[] suicidas = mapas.consultarEntreHostiles(tablero, turno);
+		tablero.consultarMascaraOcupadas(mascaraOcupadas);
+		tablero.consultarMascara(turno, mascaraPiezas);
+		int rey = -1;
+		if (turno == Color.BLANCO) {
+			rey = tablero.consultarCasillaRey();
+			if (rey >= 0) {
+				Geometria.desmarcar(mascaraPiezas, rey);
+			}
+		}
+		if (puedenAvanzar(mascaraPiezas, suicidas, reglas.consultarReservadas())) {
+			return true;
+		}
+		if (rey >= 0) {
+			Arrays.fill(mascaraPiezas, 0L);
+			Geometria.marcar(mascaraPiezas, rey);
+			return puedenAvanzar(mascaraPiezas, suicidas, mascaraVacia);
+		}
+		return false;
+	}
+
+	/**
+	 * Comprueba si alguna de las piezas puede detenerse en alguna casilla
+	 * alcanzable, usando las casillas ocupadas ya calculadas. En cada sentido el
+	 * frente de avance se desplaza una casilla por paso y pierde las casillas
+	 * ocupadas, por lo que se detiene solo al vaciarse o al llegar al alcance
+	 * del juego.
+	 * 
+	 * @param piezas     Máscara de las piezas que se mueven.
+	 * @param suicidas   Máscara de casillas entre dos hostiles para las piezas.
+	 * @param reservadas Máscara de casillas reservadas para el rey.
+	 * @return puedenAvanzar Será true o false.
+	 */
+	private boolean puedenAvanzar(long[] piezas, long[] suicidas, long[] reservadas) {
+		int alcance = reglas.consultarAlcance();
+		for (Sentido sentido : SENTIDOS) {
+			long[] frente = piezas;
+			for (int paso = 0; paso < alcance; paso++) {
+				long[] siguiente = mascaraFrente;
+				if (frente == mascaraFrente) {
+					siguiente = mascaraAvance;
 				}
-				boolean piezasNoNulas = celdasContiguas.get(i).consultarPieza() != null
-						&& celdasContiguas.get(j).consultarPieza() != null;
-				boolean piezasIguales = celdasContiguas.get(i).consultarColorDePieza() == celdasContiguas.get(j)
-						.consultarColorDePieza();
-				boolean coloresDiferentes = true;
-				if (celdasContiguas.get(i) != null && celdasContiguas.get(j) != null) {
-					coloresDiferentes = celdasContiguas.get(i).consultarColorDePieza() != pieza.consultarColor()
-							&& celdasContiguas.get(j).consultarColorDePieza() != pieza.consultarColor();
+				long quedan = 0;
+				for (int palabra = 0; palabra < geometria.consultarNumeroPalabras(); palabra++) {
+					long libres = geometria.consultarPalabraDesplazada(frente, sentido, palabra)
+							& ~mascaraOcupadas[palabra];
+					if ((libres & ~suicidas[palabra] & ~reservadas[palabra]) != 0) {
+						return true;
+					}
+					siguiente[palabra] = libres;
+					quedan |= libres;
 				}
-				boolean celdasEspeciales = (celdasContiguas.get(i).consultarTipoCelda() == TipoCelda.PROVINCIA
-						|| celdasContiguas.get(j).consultarTipoCelda() == TipoCelda.PROVINCIA)
-						|| ((celdasContiguas.get(i).consultarTipoCelda() == TipoCelda.TRONO
-								|| celdasContiguas.get(j).consultarTipoCelda() == TipoCelda.TRONO));
-				boolean coordenadasDiferentes = celdasContiguas.get(i).consultarCoordenada() != celdasContiguas.get(j)
-						.consultarCoordenada();
-				boolean mismaFilaOColumna = celdasContiguas.get(i).consultarCoordenada().fila() == celdasContiguas
-						.get(j).consultarCoordenada().fila()
-						|| celdasContiguas.get(i).consultarCoordenada().columna() == celdasContiguas.get(j)
-								.consultarCoordenada().columna();
-				if (piezasNoNulas && piezasIguales && (coloresDiferentes || celdasEspeciales) && coordenadasDiferentes
-						&& mismaFilaOColumna) {
-					esMovimientoLegal = false;
+				if (quedan == 0) {
 					break;
-				} else {
-					esMovimientoLegal = true;
 				}
+				frente = siguiente;
 			}
 		}
-		return esMovimientoLegal;
+		return false;
 	}
 
 	/**
@@ -352,43 +827,130 @@ public abstract class ArbitroAbstracto implements Arbitro
 	}
 
 	/**
-	 * Comprueba si el rey ha alcanzado alguna de las cuatro provincias tras el
-	 * último movimiento.
+	 * Comprueba si el rey ha alcanzado alguna de sus casillas de escape tras el
+	 * último movimiento: las provincias o cualquier borde, según la variante. El
+	 * tablero conoce en todo momento la casilla del rey, por lo que basta con
+	 * cruzarla con la máscara de escape de las reglas, sin recorrer el tablero.
 	 * 
 	 * @return haGanadoRey Será true o false.
 	 */
 	public boolean haGanadoRey() {
-		boolean haGanadoRey = false;
-		// hacer una copia del tablero y ver si la pieza rey se encuentra en alguna de
-		// las provincias
-		if (this.reyEliminado == false) {
-			Tablero tablero = consultarTablero();
-			Coordenada coordenada;
-			for (int i = 0; i < NUMERO_FILAS; i++) {
-				for (int j = 0; j < NUMERO_COLUMNAS; j++) {
-					coordenada = new Coordenada(i, j);
-					Celda celda = null;
-					try {
-						celda = tablero.consultarCelda(coordenada);
-					} catch (CoordenadasIncorrectasException e) {
-						e.printStackTrace();
-					}
-					if (celda.consultarPieza() != null
-							&& celda.consultarPieza().consultarTipoPieza() == TipoPieza.REY) {
-						if (i == 0 || i == NUMERO_FILAS - 1 || j == 0 || j == NUMERO_COLUMNAS - 1) {
-							haGanadoRey = true;
-							// Salimos del bucle
-							break;
-						}
-					}
-				}
-				if (haGanadoRey) {
-					// Salimos del bucle
-					break;
+		int casillaRey = tablero.consultarCasillaRey();
+		return !this.reyEliminado && casillaRey >= 0 && reglas.esEscape(casillaRey);
+	}
+
+	/**
+	 * Calcula, sin realizarla, el efecto que tendría una jugada codificada con
+	 * JugadaCompacta sobre la posición actual: si es legal, qué piezas
+	 * retiraría, si capturaría al rey y si el rey escaparía. No se toca el
+	 * tablero ni el estado de la partida: se parte de una copia del mapa de
+	 * casillas hostiles en la que solo cambian el origen, que queda vacío, y el
+	 * destino, que pasa a tener la pieza que mueve. Así evaluar una jugada cuesta
+	 * lo mismo que calcular sus capturas, sin clonar el tablero ni crear un
+	 * árbitro. No comprueba si el contrario se quedaría sin jugadas; para eso hay
+	 * que hacer la jugada con hacerJugada y consultar tieneJugadasLegales.
+	 * 
+	 * @param jugada    Jugada codificada.
+	 * @param resultado Resultado a reutilizar, o nulo para crear uno.
+	 * @return resultado Resultado de la jugada.
+	 */
+	public ResultadoJugada evaluarJugada(int jugada, ResultadoJugada resultado) {
+		if (resultado == null) {
+			resultado = new ResultadoJugada();
+		}
+		MotivoRechazo motivo = consultarMotivoRechazo(jugada);
+		resultado.reiniciar(jugada, motivo);
+		if (motivo != MotivoRechazo.NINGUNO) {
+			return resultado;
+		}
+		int origen = JugadaCompacta.consultarOrigen(jugada);
+		int destino = JugadaCompacta.consultarDestino(jugada);
+		TipoPieza tipoPieza = tablero.consultarTipoPieza(origen);
+		Color color = tipoPieza.consultarColor();
+		long[] hostiles = mapas.consultarHostiles(tablero, color.consultarContrario());
+		System.arraycopy(hostiles, 0, mascaraHostilesJugada, 0, hostiles.length);
+		if (reglas.esHostilVacia(origen)) {
+			Geometria.marcar(mascaraHostilesJugada, origen);
+		} else {
+			Geometria.desmarcar(mascaraHostilesJugada, origen);
+		}
+		if (tipoPieza != TipoPieza.REY || reglas.esReyArmado()) {
+			Geometria.marcar(mascaraHostilesJugada, destino);
+		} else {
+			Geometria.desmarcar(mascaraHostilesJugada, destino);
+		}
+		int capturas = calcularCapturas(origen, destino, color, mascaraHostilesJugada);
+		for (Sentido sentido : SENTIDOS) {
+			if ((capturas & 1 << sentido.ordinal()) != 0) {
+				int vecina = geometria.consultarVecino(sentido, destino);
+				if (tablero.consultarTipoPieza(vecina) == TipoPieza.REY) {
+					resultado.marcarReyCapturado();
+				} else {
+					resultado.añadirCaptura(vecina);
 				}
 			}
 		}
-		return haGanadoRey;
+		if (tipoPieza == TipoPieza.REY && reglas.esEscape(destino)) {
+			resultado.marcarReyEscapado();
+		}
+		return resultado;
+	}
+
+	/**
+	 * Comprueba si la partida ha terminado en tablas: la posición actual ha
+	 * aparecido REPETICIONES_TABLAS veces con el mismo turno, o se ha llegado al
+	 * límite de jugadas seguidas sin captura. Si alguno ha ganado no hay tablas.
+	 * Con mover, se debe consultar después de realizarCapturasTrasMover.
+	 * 
+	 * @return hayTablas Será true o false.
+	 */
+	public boolean hayTablas() {
+		if (haGanadoAtacante() || haGanadoRey()) {
+			return false;
+		}
+		return consultarRepeticiones() >= REPETICIONES_TABLAS
+				|| limiteJugadasSinCaptura > 0 && jugadasSinCaptura >= limiteJugadasSinCaptura;
+	}
+
+	/**
+	 * Devuelve cuántas veces ha aparecido la posición actual en la partida,
+	 * contando la actual. Es una consulta a la tabla de repeticiones, en tiempo
+	 * constante.
+	 * 
+	 * @return repeticiones Número de apariciones de la posición actual.
+	 */
+	public int consultarRepeticiones() {
+		return repeticiones.consultar(consultarClavePosicion()) + 1;
+	}
+
+	/**
+	 * Fija el número de jugadas seguidas sin captura que terminan la partida en
+	 * tablas, o cero para no limitarlas, que es el valor inicial. Si el límite es
+	 * negativo lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param limite Límite de jugadas sin captura.
+	 */
+	public void configurarLimiteJugadasSinCaptura(int limite) {
+		if (limite < 0) {
+			throw new IllegalArgumentException("Límite de jugadas sin captura negativo");
+		}
+		this.limiteJugadasSinCaptura = limite;
+	}
+
+	/**
+	 * Devuelve la clave de la posición actual para la tabla de repeticiones, que
+	 * es la de consultarClaveZobrist. Entre mover y cambiarTurno el atributo
+	 * turno todavía es el del jugador que ha movido, así que se usa la clave del
+	 * turno contrario, que es el que mueve en la posición nueva.
+	 * 
+	 * @return clave Clave de la posición.
+	 */
+	private long consultarClavePosicion() {
+		long clave = consultarClaveZobrist();
+		if (cambioTurnoPendiente) {
+			clave ^= Zobrist.CLAVE_TURNO_BLANCO;
+		}
+		return clave;
 	}
 
 	/**
@@ -404,175 +966,265 @@ public abstract class ArbitroAbstracto implements Arbitro
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
 	 */
 	public void mover(Jugada jugada) throws CoordenadasIncorrectasException {
+		int jugadaCompacta = codificar(jugada);
 		// Guarda el estado actual del juego antes de realizar la jugada
-		Tablero tableroActual = tablero.clonar();
-		Registro registro = new Registro(tableroActual, jugada);
-		historial.push(registro);
-	
-		Celda origen = jugada.consultarOrigen();
-		Celda destino = jugada.consultarDestino();
-	
-		try {
-			Pieza pieza = origen.consultarPieza();
-			tablero.eliminarPieza(origen.consultarCoordenada());
-			tablero.colocar(pieza, destino.consultarCoordenada());
-			this.ultimaJugada = jugada;
-			jugadas++;
-		} catch (CoordenadasIncorrectasException e) {
-			throw new CoordenadasIncorrectasException("Coordenadas incorrectas");
-		} catch (IllegalArgumentException e) {
-			throw new IllegalArgumentException("Jugada nula");
-		}
+		repeticiones.añadir(consultarClavePosicion());
+		historial.push(new Registro(tablero.clonar(), jugada, jugadaCompacta, jugadasSinCaptura, ultimaJugada,
+				reyEliminado));
+		realizarMovimiento(jugadaCompacta);
+	}
+
+	/**
+	 * Realiza una jugada codificada con JugadaCompacta, igual que mover(Jugada):
+	 * asume que la legalidad ya se ha comprobado, guarda el estado para poder
+	 * retroceder y la deja como última jugada para realizarCapturasTrasMover.
+	 * 
+	 * @param jugada Jugada codificada.
+	 */
+	public void mover(int jugada) {
+		repeticiones.añadir(consultarClavePosicion());
+		historial.push(new Registro(tablero.clonar(), null, jugada, jugadasSinCaptura, ultimaJugada, reyEliminado));
+		realizarMovimiento(jugada);
+	}
+
+	/**
+	 * Mueve la pieza de la jugada y la guarda como última jugada.
+	 * 
+	 * @param jugada Jugada codificada.
+	 */
+	private void realizarMovimiento(int jugada) {
+		moverPieza(JugadaCompacta.consultarOrigen(jugada), JugadaCompacta.consultarDestino(jugada));
+		this.ultimaJugada = jugada;
+		cambioTurnoPendiente = true;
+		jugadasSinCaptura++;
+		jugadas++;
 	}
 
 	/**
-	 * Retira del tablero las piezas capturadas tras el último movimiento.
+	 * Retira del tablero las piezas capturadas tras el último movimiento. Si
+	 * todavía no se ha movido no hace nada.
 	 * 
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
 	 */
 	public void realizarCapturasTrasMover() throws CoordenadasIncorrectasException {
-		Celda origen = ultimaJugada.consultarOrigen();
-		Celda destino = ultimaJugada.consultarDestino();
-		Coordenada coordenadaDestino = destino.consultarCoordenada();
-		Pieza pieza = destino.consultarPieza();
-		// Por algun motivo, en textui me saca que la pieza es null en "destino".
-		// En modo grafico, me saca null en "origen", por lo que lo he puesto asi
-		// para que funcione en ambos modos. IMPRESIONANTE DIOS.
-		if (pieza == null) {
-			pieza = origen.consultarPieza();
-		}
-		Color colorPieza = pieza.consultarColor();
-		List<Celda> celdasContiguas = tablero.consultarCeldasContiguas(coordenadaDestino);
-		// Recorremos las celdas hasta encontrar una con una pieza de distinto color
-		for (int i = 0; i < celdasContiguas.size(); i++) {
-			try {
-				if (sePuedeComer(celdasContiguas.get(i), colorPieza, coordenadaDestino)
-						&& celdasContiguas.get(i).consultarPieza().consultarTipoPieza() != TipoPieza.REY) {
-					tablero.eliminarPieza(celdasContiguas.get(i).consultarCoordenada());
-				} else if (sePuedeComerREY(celdasContiguas.get(i), colorPieza, coordenadaDestino)
-						&& celdasContiguas.get(i).consultarPieza().consultarTipoPieza() == TipoPieza.REY) {
-					this.reyEliminado = true;
-				}
-			} catch (NullPointerException e) {
-				tablero.eliminarPieza(celdasContiguas.get(i).consultarCoordenada());
+		if (ultimaJugada >= 0) {
+			int destino = JugadaCompacta.consultarDestino(ultimaJugada);
+			if (aplicarCapturas(destino, calcularCapturas(destino)) != 0) {
+				jugadasSinCaptura = 0;
 			}
 		}
 	}
 
 	/**
-	 * Comprueba si, tras moverse la pieza seleccionada, se puede comer una pieza.
+	 * Realiza la jugada completa de la casilla origen a la casilla destino: mueve
+	 * la pieza, retira las piezas capturadas y cambia el turno. Igual que mover,
+	 * asume que la legalidad ya se ha comprobado. No crea objetos: lo necesario
+	 * para deshacerla se guarda en una pila de arrays primitivos, por lo que está
+	 * pensado para búsquedas o simulaciones que hacen y deshacen muchas jugadas.
+	 * Las jugadas se deben deshacer con deshacerJugada, no con retroceder.
 	 * 
-	 * @param celdaContigua     Celda contigua a la pieza.
-	 * @param colorPieza        Color de la pieza.
-	 * @param coordenadaDestino Coordenada destino de la pieza.
-	 * @return sePuedeComer Será true o false.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see realizarCapturasTrasMover Ver la función realizarCapturasTrasMover.
+	 * @param origen  Índice de la casilla origen (fila * número de columnas +
+	 *                columna).
+	 * @param destino Índice de la casilla destino.
 	 */
-	private boolean sePuedeComer(Celda celdaContigua, Color colorPieza, Coordenada coordenadaDestino)
-			throws CoordenadasIncorrectasException {
-		boolean sePuedeComer = false;
-		// Comprobamos que la celda contigua no sea null
-		if (celdaContigua != null) {
-			if (celdaContigua.consultarPieza() != null && celdaContigua.consultarColorDePieza() != colorPieza) {
-				List<Celda> celdaAmiga = tablero.consultarCeldasContiguas(celdaContigua.consultarCoordenada());
-				// Comprobamos si la celda amiga es una pieza del mismo color y si se encuentra
-				// en la misma fila o columna, pero distinta coordenada
-				for (int i = 0; i < celdaAmiga.size(); i++) {
-					boolean esColorAmigoOProvincia = celdaAmiga.get(i).consultarColorDePieza() == colorPieza
-							|| celdaAmiga.get(i).consultarTipoCelda() == TipoCelda.PROVINCIA;
-					boolean esTronoVacio = celdaAmiga.get(i).consultarTipoCelda() == TipoCelda.TRONO
-							&& celdaAmiga.get(i).consultarPieza() == null;
-					boolean mismaFilaOColumna = celdaAmiga.get(i).consultarCoordenada().fila() == coordenadaDestino
-							.fila() || celdaAmiga.get(i).consultarCoordenada().columna() == coordenadaDestino.columna();
-					boolean coordenadasDiferentes = !celdaAmiga.get(i).consultarCoordenada().equals(coordenadaDestino);
-					if ((esColorAmigoOProvincia || esTronoVacio) && mismaFilaOColumna && coordenadasDiferentes) {
-						sePuedeComer = true;
-						break;
+	public void hacerJugada(int origen, int destino) {
+		if (profundidad == pilaOrigen.length) {
+			ampliarPila();
+		}
+		repeticiones.añadir(consultarClavePosicion());
+		moverPieza(origen, destino);
+		pilaOrigen[profundidad] = origen;
+		pilaDestino[profundidad] = destino;
+		pilaReyEliminado[profundidad] = reyEliminado;
+		pilaSinCaptura[profundidad] = jugadasSinCaptura;
+		pilaCapturas[profundidad] = aplicarCapturas(destino, calcularCapturas(destino));
+		jugadasSinCaptura = pilaCapturas[profundidad] != 0 ? 0 : jugadasSinCaptura + 1;
+		profundidad++;
+		jugadas++;
+		cambiarTurno();
+	}
+
+	/**
+	 * Realiza una jugada codificada con JugadaCompacta, igual que
+	 * hacerJugada(origen, destino). Se deshace con deshacerJugada.
+	 * 
+	 * @param jugada Jugada codificada.
+	 */
+	public void hacerJugada(int jugada) {
+		hacerJugada(JugadaCompacta.consultarOrigen(jugada), JugadaCompacta.consultarDestino(jugada));
+	}
+
+	/**
+	 * Deshace la última jugada hecha con hacerJugada, restaurando en el propio
+	 * tablero la pieza movida, las piezas capturadas, el estado del rey, el turno,
+	 * el número de jugadas y la cuenta de repeticiones y de jugadas sin captura.
+	 * Si no hay jugadas que deshacer no hace nada.
+	 */
+	public void deshacerJugada() {
+		if (profundidad > 0) {
+			profundidad--;
+			int origen = pilaOrigen[profundidad];
+			int destino = pilaDestino[profundidad];
+			int capturas = pilaCapturas[profundidad];
+			turno = turno.consultarContrario();
+			jugadas--;
+			moverPieza(destino, origen);
+			if (capturas != 0) {
+				// Las piezas capturadas siempre son del color contrario al que movió
+				TipoPieza tipoCapturadas = TipoPieza.DEFENSOR;
+				if (turno == Color.BLANCO) {
+					tipoCapturadas = TipoPieza.ATACANTE;
+				}
+				for (Sentido sentido : SENTIDOS) {
+					if ((capturas & 1 << sentido.ordinal()) != 0) {
+						colocarPieza(tipoCapturadas, geometria.consultarVecino(sentido, destino));
 					}
 				}
 			}
+			reyEliminado = pilaReyEliminado[profundidad];
+			jugadasSinCaptura = pilaSinCaptura[profundidad];
+			repeticiones.quitar(consultarClavePosicion());
 		}
-		return sePuedeComer;
 	}
 
 	/**
-	 * Comprueba si la pieza en la celda Contigua es la pieza tipo REY, y si se
-	 * puede comer.
+	 * Duplica la capacidad de la pila de deshacer.
+	 */
+	private void ampliarPila() {
+		int capacidad = pilaOrigen.length * 2;
+		pilaOrigen = Arrays.copyOf(pilaOrigen, capacidad);
+		pilaDestino = Arrays.copyOf(pilaDestino, capacidad);
+		pilaCapturas = Arrays.copyOf(pilaCapturas, capacidad);
+		pilaReyEliminado = Arrays.copyOf(pilaReyEliminado, capacidad);
+		pilaSinCaptura = Arrays.copyOf(pilaSinCaptura, capacidad);
+	}
+
+	/**
+	 * Retira del tablero las piezas capturadas alrededor de la casilla destino. Si
+	 * entre ellas está el rey, no se retira, pero se marca como eliminado.
 	 * 
-	 * @param celdaContigua     Celda Contigua.
-	 * @param colorPieza        Color de la Pieza.
-	 * @param coordenadaDestino Coordenada de destino.
-	 * @return sePuedeComer Si se puede comer al rey.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see realizarCapturasTrasMover Ver la función realizarCapturasTrasMover.
+	 * @param destino  Índice de la casilla a la que se ha movido la pieza.
+	 * @param capturas Piezas capturadas, con un bit por sentido (por ordinal).
+	 * @return retiradas Piezas retiradas del tablero, con el mismo formato y sin
+	 *         incluir al rey.
 	 */
-	private boolean sePuedeComerREY(Celda celdaContigua, Color colorPieza, Coordenada coordenadaDestino)
-			throws CoordenadasIncorrectasException {
-		boolean sePuedeComer = false;
-		int fila = celdaContigua.consultarCoordenada().fila();
-		int columna = celdaContigua.consultarCoordenada().columna();
-		// Comprobar que se enuentra en el trono
-		if (celdaContigua.consultarTipoCelda() == TipoCelda.TRONO) {
-			sePuedeComer = sePuedeComerREYTrono(celdaContigua, colorPieza, coordenadaDestino);
-		} else if ((fila == 2 && columna == 3) || (fila == 3 && (columna == 2 || columna == 4))
-				|| (fila == 4 && columna == 3)) {
-			sePuedeComer = sePuedeComerREYAyacenteTrono(celdaContigua, coordenadaDestino);
-		} else {
-			sePuedeComer = sePuedeComer(celdaContigua, colorPieza, coordenadaDestino);
+	private int aplicarCapturas(int destino, int capturas) {
+		int retiradas = 0;
+		for (Sentido sentido : SENTIDOS) {
+			if ((capturas & 1 << sentido.ordinal()) != 0) {
+				int vecina = geometria.consultarVecino(sentido, destino);
+				if (tablero.consultarTipoPieza(vecina) == TipoPieza.REY) {
+					this.reyEliminado = true;
+				} else {
+					eliminarPieza(vecina);
+					retiradas |= 1 << sentido.ordinal();
+				}
+			}
 		}
-		return sePuedeComer;
+		return retiradas;
 	}
 
 	/**
-	 * Comprueba si se puede comer al rey en el trono.
+	 * Calcula las piezas capturadas por la pieza que acaba de llegar a la casilla
+	 * destino. Una pieza enemiga contigua se captura si la casilla del otro lado
+	 * es hostil: una pieza del color que mueve o una casilla especial vacía que
+	 * la variante hace hostil. Las capturas por custodia se resuelven con
+	 * Capturas sobre la máscara de piezas enemigas y el mapa de casillas
+	 * hostiles. Donde la variante exige rodear al rey, se quita de la máscara de
+	 * enemigas y se comprueba con la máscara de rodeo de las reglas.
 	 * 
-	 * @param celdaContigua     Celda contigua.
-	 * @param colorPieza        Color de la pieza.
-	 * @param coordenadaDestino Coordenada de destino.
-	 * @return sePuedeComer Si se puede comer al rey.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see sePuedeComerREY Ver la función sePuedeComerREY.
+	 * @param destino Índice de la casilla a la que se ha movido la pieza.
+	 * @return capturas Piezas capturadas, incluyendo al rey si se ha capturado,
+	 *         con un bit por cada sentido (por ordinal) en el que está la pieza
+	 *         capturada.
 	 */
-	private boolean sePuedeComerREYTrono(Celda celdaContigua, Color colorPieza, Coordenada coordenadaDestino)
-			throws CoordenadasIncorrectasException {
-		boolean sePuedeComer = false;
-		List<Celda> celdasContiguasTrono = tablero.consultarCeldasContiguas(celdaContigua.consultarCoordenada());
-		int contador = 0;
-		for (int i = 0; i < celdasContiguasTrono.size(); i++) {
-			if (celdasContiguasTrono.get(i).consultarColorDePieza() == Color.NEGRO) {
-				contador++;
-			}
-			if (contador == celdasContiguasTrono.size()) {
-				sePuedeComer = true;
+	private int calcularCapturas(int destino) {
+		Color color = tablero.consultarTipoPieza(destino).consultarColor();
+		return calcularCapturas(-1, destino, color, mapas.consultarHostiles(tablero, color.consultarContrario()));
+	}
+
+	/**
+	 * Calcula las piezas que capturaría una pieza del color indicado al llegar a
+	 * la casilla destino, con el mapa de casillas hostiles dado. Si se indica la
+	 * casilla origen, la jugada todavía no se ha hecho en el tablero y, para
+	 * comprobar el rodeo del rey, el atacante se cuenta en el destino y no en el
+	 * origen.
+	 * 
+	 * @param origen   Índice de la casilla origen, o -1 si la pieza ya está en el
+	 *                 destino.
+	 * @param destino  Índice de la casilla destino.
+	 * @param color    Color de la pieza que mueve.
+	 * @param hostiles Casillas hostiles para las piezas del color contrario.
+	 * @return capturas Piezas capturadas, con el mismo formato que
+	 *         calcularCapturas(destino).
+	 */
+	private int calcularCapturas(int origen, int destino, Color color, long[] hostiles) {
+		tablero.consultarMascara(color.consultarContrario(), mascaraEnemigas);
+		int capturas = 0;
+		int rey = tablero.consultarCasillaRey();
+		if (color == Color.NEGRO && rey >= 0 && reglas.requiereRodeoRey(rey)) {
+			Geometria.desmarcar(mascaraEnemigas, rey);
+			Sentido sentido = geometria.consultarSentido(destino, rey);
+			if (sentido != null && geometria.consultarVecino(sentido, destino) == rey) {
+				tablero.consultarMascara(TipoPieza.ATACANTE, mascaraAtacantes);
+				if (origen >= 0) {
+					Geometria.desmarcar(mascaraAtacantes, origen);
+					Geometria.marcar(mascaraAtacantes, destino);
+				}
+				if (reglas.estaRodeadoRey(rey, mascaraAtacantes)) {
+					capturas = 1 << sentido.ordinal();
+				}
 			}
 		}
-		return sePuedeComer;
+		return capturas | Capturas.calcular(geometria, destino, mascaraEnemigas, hostiles);
 	}
 
 	/**
-	 * Comprueba si se puede comer al rey en alguna celda ayacente al trono.
+	 * Mueve una pieza del tablero y actualiza los mapas de casillas hostiles si
+	 * estaban al día.
 	 * 
-	 * @param celdaContigua     Celda Contigua.
-	 * @param coordenadaDestino Coordenada de destino.
-	 * @return sePuedeComer Si se puede comer al rey o no.
-	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
-	 * @see sePuedeComerREY Ver la función sePuedeComerREY.
+	 * @param origen  Índice de la casilla de la pieza.
+	 * @param destino Índice de la casilla a la que se mueve.
 	 */
-	private boolean sePuedeComerREYAyacenteTrono(Celda celdaContigua, Coordenada coordenadaDestino)
-			throws CoordenadasIncorrectasException {
-		boolean sePuedeComer = false;
-		List<Celda> celdasContiguasTrono = tablero.consultarCeldasContiguas(celdaContigua.consultarCoordenada());
-		int contador = 0;
-		for (int i = 0; i < celdasContiguasTrono.size(); i++) {
-			if (celdasContiguasTrono.get(i).consultarColorDePieza() == Color.NEGRO) {
-				contador++;
-			}
-			if (contador == celdasContiguasTrono.size() - 1) {
-				sePuedeComer = true;
-			}
+	private void moverPieza(int origen, int destino) {
+		boolean alDia = mapas.estanAlDia(tablero);
+		tablero.moverPieza(origen, destino);
+		if (alDia) {
+			mapas.actualizar(tablero, origen);
+			mapas.actualizar(tablero, destino);
+			mapas.confirmar(tablero);
+		}
+	}
+
+	/**
+	 * Retira una pieza del tablero y actualiza los mapas de casillas hostiles si
+	 * estaban al día.
+	 * 
+	 * @param casilla Índice de la casilla de la pieza.
+	 */
+	private void eliminarPieza(int casilla) {
+		boolean alDia = mapas.estanAlDia(tablero);
+		tablero.eliminarPieza(casilla);
+		if (alDia) {
+			mapas.actualizar(tablero, casilla);
+			mapas.confirmar(tablero);
+		}
+	}
+
+	/**
+	 * Coloca una pieza en una casilla vacía del tablero y actualiza los mapas de
+	 * casillas hostiles si estaban al día.
+	 * 
+	 * @param tipoPieza Tipo de la pieza.
+	 * @param casilla   Índice de la casilla.
+	 */
+	private void colocarPieza(TipoPieza tipoPieza, int casilla) {
+		boolean alDia = mapas.estanAlDia(tablero);
+		tablero.colocarPieza(tipoPieza, casilla);
+		if (alDia) {
+			mapas.actualizar(tablero, casilla);
+			mapas.confirmar(tablero);
 		}
-		return sePuedeComer;
 	}
 
 	/**
@@ -582,10 +1234,19 @@ public abstract class ArbitroAbstracto implements Arbitro
 	public void retroceder() {
 		if (historial.size() > 0) {
 			Registro registro = historial.pop();
-			// Restaura el estado del tablero y la jugada
-			cambiarTurno();
+			// Restaura el estado del tablero y la jugada. Si no se había cambiado el
+			// turno tras mover, el turno ya es el del jugador que movió.
+			if (cambioTurnoPendiente) {
+				cambioTurnoPendiente = false;
+			} else {
+				cambiarTurno();
+			}
+			jugadas--;
 			tablero = registro.tablero();
-			ultimaJugada = registro.jugada();
+			ultimaJugada = registro.ultimaJugadaAnterior();
+			reyEliminado = registro.reyEliminado();
+			jugadasSinCaptura = registro.jugadasSinCaptura();
+			repeticiones.quitar(consultarClavePosicion());
 		}
 	}
 }
\ No newline at end of file
@@ -2,181 +2,25 @@
 package tafl.control;
 
 import tafl.modelo.Tablero;
-import tafl.excepcion.CoordenadasIncorrectasException;
-import tafl.modelo.Celda;
-import tafl.modelo.Jugada;
-import tafl.modelo.Pieza;
-import tafl.util.TipoPieza;
-import tafl.util.Color;
-import tafl.util.Coordenada;
 
 /**
  * Clase ArbitroArdRi. Árbitro del juego ArdRi. Se encarga de controlar el
- * juego. Funciones específicas del juego ArdRi.
+ * juego. Las reglas específicas del juego ArdRi (las piezas avanzan de una en
+ * una y el rey escapa por cualquier borde) están descritas como datos en
+ * Variante.ARDRI.
  * 
  * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
  * @version 1.0
  * @serial 2023/11/30
  */
 public class ArbitroArdRi extends ArbitroAbstracto {
-	/**
-	 * Tablero del juego.
-	 */
-	protected Tablero tablero;
-
-	/**
-	 * Número de jugadas realizadas.
-	 */
-	protected int jugadas;
-
 	/**
 	 * Crea un nuevo árbitro para el juego ArdRi.
-	 *
+	 * 
 	 * @param tablero Tablero del juego.
-	 * @throws IllegalArgumentException Si el tablero es nulo.
+	 * @throws IllegalArgumentException Si el tablero es nulo o no es de 7x7.
 	 */
 	public ArbitroArdRi(Tablero tablero) {
-		super(tablero);
-		this.tablero = tablero;
-		if (tablero == null) {
-			throw new IllegalArgumentException("Tablero nulo");
-		}
-		this.jugadas = 0;
-	}
-
-	@Override
-	public void colocarPiezasConfiguracionInicial() {
-		/*
-		 * Piezas en coordenadas: 7 - - A A A - - 6 - - - A - - - 5 A - D D D - A 4 A A
-		 * D R D A A 3 A - D D D - A 2 - - - A - - - 1 - - A A A - - a b c d e f g
-		 * Siendo A = Atacante, D = Defensor y R = Rey.
-		 */
-		super.turno = Color.NEGRO;
-		try {
-			// Atacantes
-			atacantesConfiguracionInicial();
-			// Defensores
-			defensoresConfiguracionInicial();
-			// Rey
-			Pieza pieza = new Pieza(TipoPieza.REY);
-			Coordenada coordenada = new Coordenada(3, 3);
-			tablero.colocar(pieza, coordenada);
-		} catch (CoordenadasIncorrectasException e) {
-			e.printStackTrace();
-		}
-	}
-
-	/**
-	 * Coloca las piezas correspondientes a la configuración de inicio del juego de
-	 * los atacantes.
-	 * 
-	 * @throws CoordenadasIncorrectasException Lanza excepción de coordenadas
-	 *                                         incorrectas.
-	 * @see colocarPiezasConfiguracionInicial Ver método
-	 *      colocarPiezasConfiguracionInicial.
-	 */
-	private void atacantesConfiguracionInicial() throws CoordenadasIncorrectasException {
-		Pieza pieza = new Pieza(TipoPieza.ATACANTE);
-		Coordenada coordenada;
-
-		// Posiciones de los atacantes
-		int[][] atacantesPosiciones = { { 0, 2 }, { 0, 3 }, { 0, 4 }, { 1, 3 }, { 2, 0 }, { 2, 6 }, { 3, 0 }, { 3, 1 },
-				{ 3, 5 }, { 3, 6 }, { 4, 0 }, { 4, 6 }, { 5, 3 }, { 6, 2 }, { 6, 3 }, { 6, 4 } };
-
-		for (int[] posicion : atacantesPosiciones) {
-			coordenada = new Coordenada(posicion[0], posicion[1]);
-			tablero.colocar(pieza, coordenada);
-		}
-	}
-
-	/**
-	 * Coloca las piezas correspondientes a la configuración de inicio del juego de
-	 * los defensores.
-	 * 
-	 * @throws CoordenadasIncorrectasException Lanza excepción de coordenadas
-	 *                                         incorrectas.
-	 * @see colocarPiezasConfiguracionInicial Ver método
-	 *      colocarPiezasConfiguracionInicial.
-	 */
-	private void defensoresConfiguracionInicial() throws CoordenadasIncorrectasException {
-		Pieza pieza = new Pieza(TipoPieza.DEFENSOR);
-		Coordenada coordenada;
-
-		// Posiciones de los defensores
-		int[][] defensoresPosiciones = { { 2, 2 }, { 2, 3 }, { 2, 4 }, { 3, 2 }, { 3, 4 }, { 4, 2 }, { 4, 3 },
-				{ 4, 4 } };
-
-		for (int[] posicion : defensoresPosiciones) {
-			coordenada = new Coordenada(posicion[0], posicion[1]);
-			tablero.colocar(pieza, coordenada);
-		}
-	}
-
-	@Override
-	protected boolean consultarPiezaHorizontal(boolean esMovimientoLegal, Jugada jugada, Celda origen)
-			throws CoordenadasIncorrectasException {
-		int origenColumna = origen.consultarCoordenada().columna();
-		int destinoColumna = jugada.consultarDestino().consultarCoordenada().columna();
-
-		// Verificar si se ha movido más de una celda
-		if (Math.abs(origenColumna - destinoColumna) > 1) {
-			esMovimientoLegal = false;
-		}
-
-		switch (jugada.consultarSentido()) {
-		case HORIZONTAL_E:
-			for (int i = origenColumna + 1; i < destinoColumna; i++) {
-				Coordenada coordenada = new Coordenada(origen.consultarCoordenada().fila(), i);
-				if (tablero.consultarCelda(coordenada).consultarPieza() != null) {
-					esMovimientoLegal = false;
-				}
-			}
-			break;
-		case HORIZONTAL_O:
-			for (int i = origenColumna - 1; i > destinoColumna; i--) {
-				Coordenada coordenada = new Coordenada(origen.consultarCoordenada().fila(), i);
-				if (tablero.consultarCelda(coordenada).consultarPieza() != null) {
-					esMovimientoLegal = false;
-				}
-			}
-			break;
-		default:
-			break;
-		}
-		return esMovimientoLegal;
-	}
-
-	@Override
-	protected boolean consultarPiezaVertical(boolean esMovimientoLegal, Jugada jugada, Celda origen)
-			throws CoordenadasIncorrectasException {
-		int origenColumna = origen.consultarCoordenada().fila();
-		int destinoColumna = jugada.consultarDestino().consultarCoordenada().fila();
-		if (Math.abs(origenColumna - destinoColumna) > 1) {
-			esMovimientoLegal = false;
-		}
-
-		switch (jugada.consultarSentido()) {
-		case VERTICAL_N:
-			for (int i = origen.consultarCoordenada().fila() - 1; i > jugada.consultarDestino().consultarCoordenada()
-					.fila(); i--) {
-				Coordenada coordenada = new Coordenada(i, origen.consultarCoordenada().columna());
-				if (tablero.consultarCelda(coordenada).consultarPieza() != null) {
-					esMovimientoLegal = false;
-				}
-			}
-			break;
-		case VERTICAL_S:
-			for (int i = origen.consultarCoordenada().fila() + 1; i < jugada.consultarDestino().consultarCoordenada()
-					.fila(); i++) {
-				Coordenada coordenada = new Coordenada(i, origen.consultarCoordenada().columna());
-				if (tablero.consultarCelda(coordenada).consultarPieza() != null) {
-					esMovimientoLegal = false;
-				}
-			}
-			break;
-		default:
-			break;
-		}
-		return esMovimientoLegal;
+		super(tablero, Variante.ARDRI);
 	}
 }
\ No newline at end of file
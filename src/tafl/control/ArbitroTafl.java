@@ -0,0 +1,52 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+import tafl.modelo.Tablero;
+
+/**
+ * Clase ArbitroTafl. Árbitro para cualquier variante de Tafl descrita con
+ * Variante, como Variante.TABLUT o Variante.HNEFATAFL. Todas las reglas salen
+ * de la variante, por lo que una variante nueva no necesita una subclase.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public class ArbitroTafl extends ArbitroAbstracto {
+	/**
+	 * Crea un nuevo árbitro para la variante indicada, sobre el tablero dado.
+	 * 
+	 * @param tablero  Tablero del juego.
+	 * @param variante Variante del juego.
+	 * @throws IllegalArgumentException Si el tablero o la variante son nulos, o
+	 *                                  el tablero no es del tamaño de la
+	 *                                  variante.
+	 */
+	public ArbitroTafl(Tablero tablero, Variante variante) {
+		super(tablero, variante);
+	}
+
+	/**
+	 * Crea un nuevo árbitro para la variante indicada, con un tablero vacío de su
+	 * tamaño. Si la variante vale nulo o no tiene configuración inicial, y por
+	 * tanto tamaño, lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param variante Variante del juego.
+	 */
+	public ArbitroTafl(Variante variante) {
+		this(new Tablero(consultarTamaño(variante)), variante);
+	}
+
+	/**
+	 * Devuelve el tamaño del tablero de la variante.
+	 * 
+	 * @param variante Variante del juego.
+	 * @return tamaño Tamaño del tablero de la variante.
+	 */
+	private static int consultarTamaño(Variante variante) {
+		if (variante == null || variante.consultarTamaño() == 0) {
+			throw new IllegalArgumentException("La variante no indica el tamaño del tablero");
+		}
+		return variante.consultarTamaño();
+	}
+}
@@ -0,0 +1,230 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+import tafl.modelo.Capturas;
+import tafl.modelo.Geometria;
+import tafl.modelo.Tablero;
+import tafl.util.Color;
+import tafl.util.TipoPieza;
+
+/**
+ * Clase MapasHostiles. Mantiene, para cada color, la máscara de casillas
+ * hostiles para sus piezas y la de casillas entre dos hostiles, a las que esas
+ * piezas no pueden moverse. Así la comprobación de una casilla es un test de
+ * bit y las capturas parten de una máscara ya calculada.
+ * 
+ * Los mapas de hostiles se actualizan casilla a casilla cuando el árbitro
+ * mueve, retira o coloca una pieza, porque el cambio de una casilla solo
+ * afecta a su propia hostilidad. El de casillas entre dos hostiles de un color
+ * se marca como pendiente si cambia su mapa de hostiles, y se recalcula entero
+ * con desplazamientos de máscaras en la siguiente consulta: cuesta unas pocas
+ * operaciones por palabra, menos que revisar las vecinas de cada casilla
+ * cambiada, y el color que no mueve no se recalcula hasta que le toca. Si el
+ * tablero cambia por otra vía (se colocan piezas desde fuera o se restaura un
+ * tablero al retroceder), su clave Zobrist ya no es la de los mapas y se
+ * reconstruyen enteros en la siguiente consulta.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+final class MapasHostiles {
+	/**
+	 * Colores de las piezas. Se guarda el array para no copiarlo en cada llamada
+	 * a Color.values().
+	 */
+	private static final Color[] COLORES = Color.values();
+	/**
+	 * Geometría del tablero.
+	 */
+	private final Geometria geometria;
+	/**
+	 * Reglas de la variante.
+	 */
+	private final Reglas reglas;
+	/**
+	 * Para cada color (por ordinal), las casillas hostiles para sus piezas.
+	 */
+	private final long[][] hostiles;
+	/**
+	 * Para cada color (por ordinal), las casillas entre dos hostiles para sus
+	 * piezas.
+	 */
+	private final long[][] entreHostiles;
+	/**
+	 * Para cada color (por ordinal), si su mapa de casillas entre dos hostiles
+	 * está pendiente de recalcular.
+	 */
+	private final boolean[] entrePendientes;
+	/**
+	 * Máscara de trabajo con las casillas ocupadas, para reconstruir los mapas.
+	 */
+	private final long[] ocupadas;
+	/**
+	 * Clave Zobrist del tablero con el que se corresponden los mapas.
+	 */
+	private long clave;
+	/**
+	 * Indica si los mapas se han calculado alguna vez.
+	 */
+	private boolean calculados;
+
+	/**
+	 * Crea los mapas, que se calculan con la primera consulta.
+	 * 
+	 * @param reglas    Reglas de la variante.
+	 * @param geometria Geometría del tablero.
+	 */
+	MapasHostiles(Reglas reglas, Geometria geometria) {
+		this.reglas = reglas;
+		this.geometria = geometria;
+		this.hostiles = new long[COLORES.length][geometria.consultarNumeroPalabras()];
+		this.entreHostiles = new long[COLORES.length][geometria.consultarNumeroPalabras()];
+		this.ocupadas = new long[geometria.consultarNumeroPalabras()];
+		this.entrePendientes = new boolean[COLORES.length];
+		this.calculados = false;
+	}
+
+	/**
+	 * Comprueba si los mapas se corresponden con el tablero.
+	 * 
+	 * @param tablero Tablero del juego.
+	 * @return true si están al día, false en caso contrario.
+	 */
+	boolean estanAlDia(Tablero tablero) {
+		return calculados && clave == tablero.consultarClaveZobrist();
+	}
+
+	/**
+	 * Recalcula los mapas tras cambiar el contenido de una casilla. Solo se debe
+	 * llamar si los mapas estaban al día antes del cambio, y al terminar los
+	 * cambios de la jugada hay que llamar a confirmar. Las casillas entre dos
+	 * hostiles solo dependen del mapa de hostiles, así que se marcan como
+	 * pendientes únicamente para los colores cuya hostilidad en la casilla ha
+	 * cambiado: al mover una pieza, solo la del color contrario.
+	 *
+	 * @param tablero Tablero del juego, ya modificado.
+	 * @param casilla Índice de la casilla que ha cambiado.
+	 */
+	void actualizar(Tablero tablero, int casilla) {
+		TipoPieza tipoPieza = tablero.consultarTipoPieza(casilla);
+		for (Color color : COLORES) {
+			long[] hostilesColor = hostiles[color.ordinal()];
+			boolean hostil = esHostil(tipoPieza, casilla, color);
+			if (Geometria.estaMarcada(hostilesColor, casilla) != hostil) {
+				marcar(hostilesColor, casilla, hostil);
+				entrePendientes[color.ordinal()] = true;
+			}
+		}
+	}
+
+	/**
+	 * Deja constancia de que los mapas, tras las llamadas a actualizar, se
+	 * corresponden con el estado actual del tablero.
+	 * 
+	 * @param tablero Tablero del juego.
+	 */
+	void confirmar(Tablero tablero) {
+		clave = tablero.consultarClaveZobrist();
+	}
+
+	/**
+	 * Devuelve las casillas hostiles para las piezas del color indicado.
+	 * 
+	 * @param tablero Tablero del juego.
+	 * @param color   Color de las piezas.
+	 * @return hostiles Máscara del mapa, que no se debe modificar.
+	 */
+	long[] consultarHostiles(Tablero tablero, Color color) {
+		sincronizar(tablero);
+		return hostiles[color.ordinal()];
+	}
+
+	/**
+	 * Devuelve las casillas entre dos hostiles para las piezas del color
+	 * indicado, a las que esas piezas no pueden moverse.
+	 * 
+	 * @param tablero Tablero del juego.
+	 * @param color   Color de las piezas.
+	 * @return entreHostiles Máscara del mapa, que no se debe modificar.
+	 */
+	long[] consultarEntreHostiles(Tablero tablero, Color color) {
+		sincronizar(tablero);
+		int indice = color.ordinal();
+		if (entrePendientes[indice]) {
+			Capturas.calcularEntreHostiles(geometria, hostiles[indice], entreHostiles[indice]);
+			entrePendientes[indice] = false;
+		}
+		return entreHostiles[indice];
+	}
+
+	/**
+	 * Comprueba si la casilla está entre dos hostiles para las piezas del color
+	 * indicado.
+	 * 
+	 * @param tablero Tablero del juego.
+	 * @param casilla Índice de la casilla.
+	 * @param color   Color de las piezas.
+	 * @return true si está entre dos hostiles, false en caso contrario.
+	 */
+	boolean estaEntreHostiles(Tablero tablero, int casilla, Color color) {
+		return Geometria.estaMarcada(consultarEntreHostiles(tablero, color), casilla);
+	}
+
+	/**
+	 * Reconstruye los mapas si no se corresponden con el tablero.
+	 * 
+	 * @param tablero Tablero del juego.
+	 */
+	private void sincronizar(Tablero tablero) {
+		if (!estanAlDia(tablero)) {
+			tablero.consultarMascaraOcupadas(ocupadas);
+			for (Color color : COLORES) {
+				long[] hostilesColor = hostiles[color.ordinal()];
+				Color contrario = color.consultarContrario();
+				tablero.consultarMascara(contrario, hostilesColor);
+				int rey = tablero.consultarCasillaRey();
+				if (contrario == Color.BLANCO && !reglas.esReyArmado() && rey >= 0) {
+					Geometria.desmarcar(hostilesColor, rey);
+				}
+				Capturas.calcularHostiles(geometria, hostilesColor, ocupadas, reglas.consultarHostilesVacias(),
+						hostilesColor);
+				entrePendientes[color.ordinal()] = true;
+			}
+			calculados = true;
+			confirmar(tablero);
+		}
+	}
+
+	/**
+	 * Comprueba si la casilla es hostil para las piezas del color indicado: tiene
+	 * una pieza del color contrario (el rey solo si la variante lo arma) o es una
+	 * casilla especial vacía que la variante hace hostil.
+	 * 
+	 * @param tipoPieza Tipo de la pieza de la casilla, o nulo si está vacía.
+	 * @param casilla   Índice de la casilla.
+	 * @param color     Color de las piezas.
+	 * @return true si es hostil, false en caso contrario.
+	 */
+	private boolean esHostil(TipoPieza tipoPieza, int casilla, Color color) {
+		if (tipoPieza != null) {
+			return tipoPieza.consultarColor() != color && (tipoPieza != TipoPieza.REY || reglas.esReyArmado());
+		}
+		return reglas.esHostilVacia(casilla);
+	}
+
+	/**
+	 * Marca o desmarca la casilla en la máscara.
+	 * 
+	 * @param mascara Máscara de casillas.
+	 * @param casilla Índice de la casilla.
+	 * @param marcada Si la casilla debe quedar marcada.
+	 */
+	private static void marcar(long[] mascara, int casilla, boolean marcada) {
+		if (marcada) {
+			Geometria.marcar(mascara, casilla);
+		} else {
+			Geometria.desmarcar(mascara, casilla);
+		}
+	}
+}
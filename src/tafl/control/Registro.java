@@ -7,6 +7,12 @@ import tafl.modelo.Jugada;
  * Clase Registro. Registro de jugadas.
  * Almacena el tablero y la jugada aplicada sobre ese
  * tablero, para pasar al siguiente estado de la partida.
+ * La jugada se guarda también codificada con JugadaCompacta;
+ * si se realizó directamente en forma compacta, la jugada
+ * con celdas vale nulo. También guarda el número de jugadas
+ * seguidas sin captura antes de la jugada, la última jugada
+ * anterior y si el rey estaba eliminado, para restaurarlos
+ * al retroceder.
  * 
  * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
  * @version 1.0
@@ -14,6 +20,12 @@ import tafl.modelo.Jugada;
  * 
  * @param tablero Tablero.
  * @param jugada Jugada.
+ * @param jugadaCompacta Jugada codificada con JugadaCompacta.
+ * @param jugadasSinCaptura Jugadas seguidas sin captura antes de la jugada.
+ * @param ultimaJugadaAnterior Última jugada antes de la jugada, codificada con
+ * JugadaCompacta, o -1 si no la había.
+ * @param reyEliminado Si el rey estaba eliminado antes de la jugada.
  */
-public record Registro(Tablero tablero, Jugada jugada){
+public record Registro(Tablero tablero, Jugada jugada, int jugadaCompacta, int jugadasSinCaptura,
+		int ultimaJugadaAnterior, boolean reyEliminado){
 }
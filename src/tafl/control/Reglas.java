@@ -0,0 +1,270 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+import tafl.modelo.Geometria;
+import tafl.util.CapturaRey;
+import tafl.util.EscapeRey;
+import tafl.util.TipoCelda;
+import tafl.util.TipoPieza;
+
+/**
+ * Clase Reglas. Una variante compilada para un tamaño de tablero: cada regla de
+ * la variante queda como una máscara de casillas o un valor, de forma que el
+ * árbitro aplica las reglas con tests de bit y sin llamadas a métodos
+ * redefinibles en cada jugada. Es inmutable; las máscaras que devuelve son las
+ * propias tablas y no se deben modificar.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+final class Reglas {
+	/**
+	 * Variante compilada.
+	 */
+	private final Variante variante;
+	/**
+	 * Número máximo de casillas que avanza una pieza en una jugada.
+	 */
+	private final int alcance;
+	/**
+	 * Casillas en las que solo se puede detener el rey.
+	 */
+	private final long[] reservadas;
+	/**
+	 * Casillas hostiles para cualquier pieza cuando están vacías.
+	 */
+	private final long[] hostilesVacias;
+	/**
+	 * Casillas a las que debe llegar el rey para ganar.
+	 */
+	private final long[] escape;
+	/**
+	 * Para cada casilla, las casillas que deben ocupar los atacantes para capturar
+	 * al rey en ella, o nulo si allí se captura por custodia.
+	 */
+	private final long[][] rodeosRey;
+	/**
+	 * Si el rey es hostil para los atacantes.
+	 */
+	private final boolean reyArmado;
+	/**
+	 * Configuración inicial: para cada tipo de pieza (por ordinal), la máscara de
+	 * sus casillas, o nulo si la variante no tiene configuración inicial.
+	 */
+	private final long[][] configuracion;
+
+	/**
+	 * Compila la variante para la geometría indicada. Si la variante tiene
+	 * configuración inicial y el tamaño no coincide con el de la geometría, lanza
+	 * una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param variante  Variante a compilar.
+	 * @param geometria Geometría del tablero.
+	 */
+	Reglas(Variante variante, Geometria geometria) {
+		int tamaño = geometria.consultarTamaño();
+		if (variante.consultarTamaño() != 0 && variante.consultarTamaño() != tamaño) {
+			throw new IllegalArgumentException("El " + variante.consultarNombre() + " se juega en un tablero de "
+					+ variante.consultarTamaño() + "x" + variante.consultarTamaño());
+		}
+		int numeroCasillas = geometria.consultarNumeroCasillas();
+		int numeroPalabras = geometria.consultarNumeroPalabras();
+		int trono = geometria.consultarCasillaTrono();
+		this.variante = variante;
+		this.alcance = variante.alcance() == 0 ? tamaño - 1 : variante.alcance();
+		this.reyArmado = variante.reyArmado();
+		this.reservadas = new long[numeroPalabras];
+		this.hostilesVacias = new long[numeroPalabras];
+		this.escape = new long[numeroPalabras];
+		this.rodeosRey = new long[numeroCasillas][];
+		for (int casilla = 0; casilla < numeroCasillas; casilla++) {
+			TipoCelda tipoCelda = geometria.consultarTipoCelda(casilla);
+			if (tipoCelda == TipoCelda.TRONO || tipoCelda == TipoCelda.PROVINCIA && variante.provincias()) {
+				Geometria.marcar(reservadas, casilla);
+			}
+			if (tipoCelda == TipoCelda.TRONO && variante.tronoHostil()
+					|| tipoCelda == TipoCelda.PROVINCIA && variante.provincias()) {
+				Geometria.marcar(hostilesVacias, casilla);
+			}
+			if (variante.escape() == EscapeRey.BORDE ? geometria.esBorde(casilla)
+					: tipoCelda == TipoCelda.PROVINCIA) {
+				Geometria.marcar(escape, casilla);
+			}
+			if (variante.capturaRey() == CapturaRey.RODEO || variante.capturaRey() == CapturaRey.RODEO_JUNTO_AL_TRONO
+					&& geometria.consultarDistancia(casilla, trono) <= 1) {
+				rodeosRey[casilla] = new long[numeroPalabras];
+				for (int i = 0; i < geometria.consultarNumeroVecinos(casilla); i++) {
+					int contigua = geometria.consultarVecino(casilla, i);
+					if (contigua != trono) {
+						Geometria.marcar(rodeosRey[casilla], contigua);
+					}
+				}
+			}
+		}
+		this.configuracion = compilarConfiguracion(variante.configuracionInicial(), geometria);
+	}
+
+	/**
+	 * Traduce las filas de la configuración inicial a una máscara por tipo de
+	 * pieza.
+	 * 
+	 * @param filas     Filas de la configuración, o nulo.
+	 * @param geometria Geometría del tablero.
+	 * @return configuracion Máscaras por tipo de pieza (por ordinal), o nulo.
+	 */
+	private static long[][] compilarConfiguracion(String[] filas, Geometria geometria) {
+		if (filas == null) {
+			return null;
+		}
+		long[][] configuracion = new long[TipoPieza.values().length][geometria.consultarNumeroPalabras()];
+		for (int fila = 0; fila < filas.length; fila++) {
+			for (int columna = 0; columna < filas[fila].length(); columna++) {
+				TipoPieza tipoPieza = null;
+				switch (filas[fila].charAt(columna)) {
+				case 'A':
+					tipoPieza = TipoPieza.ATACANTE;
+					break;
+				case 'D':
+					tipoPieza = TipoPieza.DEFENSOR;
+					break;
+				case 'R':
+					tipoPieza = TipoPieza.REY;
+					break;
+				default:
+					break;
+				}
+				if (tipoPieza != null) {
+					Geometria.marcar(configuracion[tipoPieza.ordinal()], geometria.consultarCasilla(fila, columna));
+				}
+			}
+		}
+		return configuracion;
+	}
+
+	/**
+	 * Devuelve la variante compilada.
+	 * 
+	 * @return variante Variante.
+	 */
+	Variante consultarVariante() {
+		return variante;
+	}
+
+	/**
+	 * Devuelve el número máximo de casillas que avanza una pieza en una jugada.
+	 * 
+	 * @return alcance Alcance de los movimientos.
+	 */
+	int consultarAlcance() {
+		return alcance;
+	}
+
+	/**
+	 * Comprueba si en la casilla solo se puede detener el rey.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si está reservada al rey, false en caso contrario.
+	 */
+	boolean esReservada(int casilla) {
+		return Geometria.estaMarcada(reservadas, casilla);
+	}
+
+	/**
+	 * Devuelve la máscara de casillas en las que solo se puede detener el rey.
+	 * 
+	 * @return reservadas Máscara de la tabla, que no se debe modificar.
+	 */
+	long[] consultarReservadas() {
+		return reservadas;
+	}
+
+	/**
+	 * Comprueba si la casilla es hostil cuando está vacía.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si es hostil vacía, false en caso contrario.
+	 */
+	boolean esHostilVacia(int casilla) {
+		return Geometria.estaMarcada(hostilesVacias, casilla);
+	}
+
+	/**
+	 * Devuelve la máscara de casillas hostiles cuando están vacías.
+	 * 
+	 * @return hostilesVacias Máscara de la tabla, que no se debe modificar.
+	 */
+	long[] consultarHostilesVacias() {
+		return hostilesVacias;
+	}
+
+	/**
+	 * Comprueba si la casilla es una de las que debe alcanzar el rey para ganar.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si es una casilla de escape, false en caso contrario.
+	 */
+	boolean esEscape(int casilla) {
+		return Geometria.estaMarcada(escape, casilla);
+	}
+
+	/**
+	 * Comprueba si el rey participa en las capturas.
+	 * 
+	 * @return true si el rey es hostil para los atacantes, false en caso
+	 *         contrario.
+	 */
+	boolean esReyArmado() {
+		return reyArmado;
+	}
+
+	/**
+	 * Comprueba si para capturar al rey en la casilla indicada hay que rodearlo
+	 * de atacantes, en lugar de capturarlo por custodia.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si hay que rodearlo, false en caso contrario.
+	 */
+	boolean requiereRodeoRey(int casilla) {
+		return rodeosRey[casilla] != null;
+	}
+
+	/**
+	 * Comprueba si los atacantes ocupan todas las casillas necesarias para
+	 * capturar al rey en la casilla indicada. Es un test de inclusión de máscaras,
+	 * palabra a palabra. Solo tiene sentido si requiereRodeoRey(casilla).
+	 * 
+	 * @param casilla   Índice de la casilla del rey.
+	 * @param atacantes Máscara de las casillas ocupadas por atacantes.
+	 * @return true si el rey está rodeado, false en caso contrario.
+	 */
+	boolean estaRodeadoRey(int casilla, long[] atacantes) {
+		long[] rodeo = rodeosRey[casilla];
+		for (int palabra = 0; palabra < rodeo.length; palabra++) {
+			if ((rodeo[palabra] & ~atacantes[palabra]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Comprueba si la variante tiene configuración inicial.
+	 * 
+	 * @return true si tiene configuración inicial, false en caso contrario.
+	 */
+	boolean tieneConfiguracionInicial() {
+		return configuracion != null;
+	}
+
+	/**
+	 * Devuelve la máscara de casillas del tipo de pieza en la configuración
+	 * inicial. Solo tiene sentido si tieneConfiguracionInicial().
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @return mascara Máscara de la tabla, que no se debe modificar.
+	 */
+	long[] consultarConfiguracion(TipoPieza tipoPieza) {
+		return configuracion[tipoPieza.ordinal()];
+	}
+}
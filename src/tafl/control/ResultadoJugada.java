@@ -0,0 +1,173 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+import tafl.util.MotivoRechazo;
+
+/**
+ * Clase ResultadoJugada. Efecto que tendría una jugada codificada con
+ * JugadaCompacta sobre la posición actual, calculado por
+ * Arbitro.evaluarJugada sin realizarla: si es legal, qué piezas capturaría y
+ * si terminaría la partida. Es reutilizable: cada evaluación sobrescribe el
+ * resultado anterior, de modo que un bot puede evaluar miles de jugadas con un
+ * único objeto.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class ResultadoJugada {
+	/**
+	 * Número máximo de piezas que se capturan en una jugada, una por sentido.
+	 */
+	public static final int MAXIMO_CAPTURAS = 4;
+	/**
+	 * Jugada evaluada.
+	 */
+	private int jugada;
+	/**
+	 * Motivo por el que la jugada no es legal, o MotivoRechazo.NINGUNO.
+	 */
+	private MotivoRechazo motivoRechazo;
+	/**
+	 * Casillas de las piezas que se retirarían del tablero.
+	 */
+	private final int[] casillasCapturadas;
+	/**
+	 * Número de piezas que se retirarían del tablero.
+	 */
+	private int numeroCapturas;
+	/**
+	 * Indica si la jugada captura al rey.
+	 */
+	private boolean reyCapturado;
+	/**
+	 * Indica si la jugada lleva al rey a una casilla de escape.
+	 */
+	private boolean reyEscapado;
+
+	/**
+	 * Crea un resultado vacío, que se rellena con Arbitro.evaluarJugada.
+	 */
+	public ResultadoJugada() {
+		this.casillasCapturadas = new int[MAXIMO_CAPTURAS];
+		this.motivoRechazo = MotivoRechazo.NINGUNO;
+	}
+
+	/**
+	 * Empieza un resultado nuevo para la jugada indicada, sin capturas.
+	 * 
+	 * @param jugada        Jugada evaluada.
+	 * @param motivoRechazo Motivo de rechazo, o MotivoRechazo.NINGUNO.
+	 */
+	void reiniciar(int jugada, MotivoRechazo motivoRechazo) {
+		this.jugada = jugada;
+		this.motivoRechazo = motivoRechazo;
+		this.numeroCapturas = 0;
+		this.reyCapturado = false;
+		this.reyEscapado = false;
+	}
+
+	/**
+	 * Añade una pieza capturada que se retiraría del tablero.
+	 * 
+	 * @param casilla Índice de la casilla de la pieza.
+	 */
+	void añadirCaptura(int casilla) {
+		casillasCapturadas[numeroCapturas++] = casilla;
+	}
+
+	/**
+	 * Marca que la jugada captura al rey.
+	 */
+	void marcarReyCapturado() {
+		this.reyCapturado = true;
+	}
+
+	/**
+	 * Marca que la jugada lleva al rey a una casilla de escape.
+	 */
+	void marcarReyEscapado() {
+		this.reyEscapado = true;
+	}
+
+	/**
+	 * Devuelve la jugada evaluada.
+	 * 
+	 * @return jugada Jugada codificada con JugadaCompacta.
+	 */
+	public int consultarJugada() {
+		return jugada;
+	}
+
+	/**
+	 * Comprueba si la jugada evaluada es legal.
+	 * 
+	 * @return true si es legal, false en caso contrario.
+	 */
+	public boolean esLegal() {
+		return motivoRechazo == MotivoRechazo.NINGUNO;
+	}
+
+	/**
+	 * Devuelve por qué la jugada no es legal, o MotivoRechazo.NINGUNO si lo es.
+	 * 
+	 * @return motivoRechazo Motivo de rechazo.
+	 */
+	public MotivoRechazo consultarMotivoRechazo() {
+		return motivoRechazo;
+	}
+
+	/**
+	 * Devuelve el número de piezas que la jugada retiraría del tablero, sin contar
+	 * al rey.
+	 * 
+	 * @return numeroCapturas Número de piezas capturadas.
+	 */
+	public int consultarNumeroCapturas() {
+		return numeroCapturas;
+	}
+
+	/**
+	 * Devuelve la casilla de una de las piezas que la jugada retiraría del
+	 * tablero. Si el índice no es menor que consultarNumeroCapturas(), lanza una
+	 * excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param indice Índice de la captura.
+	 * @return casilla Índice de la casilla de la pieza capturada.
+	 */
+	public int consultarCasillaCapturada(int indice) {
+		if (indice < 0 || indice >= numeroCapturas) {
+			throw new IllegalArgumentException("Índice de captura incorrecto");
+		}
+		return casillasCapturadas[indice];
+	}
+
+	/**
+	 * Comprueba si la jugada captura al rey, con lo que ganaría el atacante.
+	 * 
+	 * @return true si captura al rey, false en caso contrario.
+	 */
+	public boolean haCapturadoRey() {
+		return reyCapturado;
+	}
+
+	/**
+	 * Comprueba si la jugada lleva al rey a una casilla de escape, con lo que
+	 * ganaría el defensor.
+	 * 
+	 * @return true si el rey escapa, false en caso contrario.
+	 */
+	public boolean haEscapadoRey() {
+		return reyEscapado;
+	}
+
+	/**
+	 * Comprueba si la jugada terminaría la partida con la victoria del jugador
+	 * que la realiza.
+	 * 
+	 * @return true si la jugada gana la partida, false en caso contrario.
+	 */
+	public boolean esGanadora() {
+		return reyCapturado || reyEscapado;
+	}
+}
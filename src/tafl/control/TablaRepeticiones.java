@@ -0,0 +1,145 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+/**
+ * Clase TablaRepeticiones. Cuenta cuántas veces ha aparecido cada posición de
+ * la partida, identificada por su clave Zobrist. Es una tabla hash de
+ * direccionamiento abierto con sondeo lineal sobre dos arrays primitivos
+ * (claves y contadores), por lo que sumar, restar y consultar una posición no
+ * crea objetos y cuesta tiempo constante. Las claves Zobrist ya son aleatorias,
+ * así que sus bits bajos sirven directamente como índice.
+ * 
+ * Una celda está libre cuando su contador vale cero. Al bajar un contador a
+ * cero se desplazan hacia atrás las claves siguientes de la secuencia de
+ * sondeo, para no dejar huecos que corten la búsqueda de otras claves.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+final class TablaRepeticiones {
+	/**
+	 * Capacidad inicial de la tabla. Debe ser potencia de dos.
+	 */
+	private static final int CAPACIDAD_INICIAL = 256;
+	/**
+	 * Claves de las posiciones.
+	 */
+	private long[] claves;
+	/**
+	 * Número de apariciones de la posición de cada celda, o cero si está libre.
+	 */
+	private int[] contadores;
+	/**
+	 * Número de celdas ocupadas.
+	 */
+	private int ocupadas;
+
+	/**
+	 * Crea una tabla vacía.
+	 */
+	TablaRepeticiones() {
+		this.claves = new long[CAPACIDAD_INICIAL];
+		this.contadores = new int[CAPACIDAD_INICIAL];
+		this.ocupadas = 0;
+	}
+
+	/**
+	 * Suma una aparición de la posición. La tabla se amplía al llegar a la mitad
+	 * de su capacidad, para que las secuencias de sondeo sean cortas.
+	 * 
+	 * @param clave Clave Zobrist de la posición.
+	 */
+	void añadir(long clave) {
+		if (2 * (ocupadas + 1) > claves.length) {
+			ampliar();
+		}
+		int indice = buscar(clave);
+		if (contadores[indice] == 0) {
+			claves[indice] = clave;
+			ocupadas++;
+		}
+		contadores[indice]++;
+	}
+
+	/**
+	 * Resta una aparición de la posición. Si la posición no está en la tabla no
+	 * hace nada.
+	 * 
+	 * @param clave Clave Zobrist de la posición.
+	 */
+	void quitar(long clave) {
+		int indice = buscar(clave);
+		if (contadores[indice] > 0 && --contadores[indice] == 0) {
+			ocupadas--;
+			liberar(indice);
+		}
+	}
+
+	/**
+	 * Devuelve el número de apariciones de la posición.
+	 * 
+	 * @param clave Clave Zobrist de la posición.
+	 * @return apariciones Número de veces que se ha añadido y no quitado.
+	 */
+	int consultar(long clave) {
+		return contadores[buscar(clave)];
+	}
+
+	/**
+	 * Devuelve la celda de la clave o, si no está, la celda libre en la que se
+	 * colocaría.
+	 * 
+	 * @param clave Clave Zobrist de la posición.
+	 * @return indice Índice de la celda.
+	 */
+	private int buscar(long clave) {
+		int mascara = claves.length - 1;
+		int indice = (int) clave & mascara;
+		while (contadores[indice] != 0 && claves[indice] != clave) {
+			indice = (indice + 1) & mascara;
+		}
+		return indice;
+	}
+
+	/**
+	 * Deja libre la celda indicada, moviendo a ella la siguiente clave de la
+	 * secuencia de sondeo que no pueda quedar detrás del hueco, y repitiendo con
+	 * la celda que esa clave deja libre.
+	 * 
+	 * @param hueco Índice de la celda que se libera.
+	 */
+	private void liberar(int hueco) {
+		int mascara = claves.length - 1;
+		int indice = (hueco + 1) & mascara;
+		while (contadores[indice] != 0) {
+			int inicial = (int) claves[indice] & mascara;
+			// La clave puede ocupar el hueco si su celda inicial no está entre el
+			// hueco (excluido) y su celda actual (incluida), en orden circular.
+			if (((indice - inicial) & mascara) >= ((indice - hueco) & mascara)) {
+				claves[hueco] = claves[indice];
+				contadores[hueco] = contadores[indice];
+				contadores[indice] = 0;
+				hueco = indice;
+			}
+			indice = (indice + 1) & mascara;
+		}
+	}
+
+	/**
+	 * Duplica la capacidad de la tabla y vuelve a colocar las claves.
+	 */
+	private void ampliar() {
+		long[] clavesAnteriores = claves;
+		int[] contadoresAnteriores = contadores;
+		claves = new long[clavesAnteriores.length * 2];
+		contadores = new int[contadoresAnteriores.length * 2];
+		for (int i = 0; i < clavesAnteriores.length; i++) {
+			if (contadoresAnteriores[i] != 0) {
+				int indice = buscar(clavesAnteriores[i]);
+				claves[indice] = clavesAnteriores[i];
+				contadores[indice] = contadoresAnteriores[i];
+			}
+		}
+	}
+}
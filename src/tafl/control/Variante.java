@@ -0,0 +1,223 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.control;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import tafl.modelo.Geometria;
+import tafl.util.CapturaRey;
+import tafl.util.EscapeRey;
+
+/**
+ * Clase Variante. Descripción declarativa de las reglas de una variante de
+ * Tafl: configuración inicial (de la que sale el tamaño del tablero), alcance
+ * de los movimientos, casillas especiales, casillas de escape del rey y forma
+ * de capturarlo. El árbitro la compila una vez en tablas de casillas, por lo
+ * que una variante nueva es un dato más y no una subclase del árbitro.
+ * 
+ * La configuración inicial se da con una cadena por fila, de arriba abajo, con
+ * un carácter por columna: 'A' atacante, 'D' defensor, 'R' rey y '.' vacía. El
+ * trono está siempre en la casilla central y las provincias en las esquinas.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ * 
+ * @param nombre               Nombre de la variante.
+ * @param configuracionInicial Filas de la configuración inicial, o nulo si la
+ *                             variante no tiene configuración inicial y se
+ *                             puede jugar en cualquier tamaño.
+ * @param alcance              Número máximo de casillas que avanza una pieza
+ *                             en una jugada, o 0 si no hay límite.
+ * @param provincias           Si las esquinas son casillas especiales:
+ *                             reservadas al rey y hostiles cuando están vacías.
+ * @param tronoHostil          Si el trono vacío es hostil. El trono siempre
+ *                             está reservado al rey.
+ * @param escape               Casillas que debe alcanzar el rey para ganar.
+ * @param capturaRey           Forma de capturar al rey.
+ * @param reyArmado            Si el rey participa en las capturas como casilla
+ *                             hostil para los atacantes.
+ */
+public record Variante(String nombre, String[] configuracionInicial, int alcance, boolean provincias,
+		boolean tronoHostil, EscapeRey escape, CapturaRey capturaRey, boolean reyArmado) {
+
+	/**
+	 * Brandubh: tablero de 7x7, movimientos de cualquier longitud y el rey escapa
+	 * por las provincias.
+	 */
+	public static final Variante BRANDUBH = new Variante("Brandubh", new String[] {
+			"...A...",
+			"...A...",
+			"...D...",
+			"AADRDAA",
+			"...D...",
+			"...A...",
+			"...A..." }, 0, true, true, EscapeRey.PROVINCIAS, CapturaRey.RODEO_JUNTO_AL_TRONO, true);
+
+	/**
+	 * ArdRi: tablero de 7x7, las piezas avanzan de una en una y el rey escapa por
+	 * cualquier borde.
+	 */
+	public static final Variante ARDRI = new Variante("ArdRi", new String[] {
+			"..AAA..",
+			"...A...",
+			"A.DDD.A",
+			"AADRDAA",
+			"A.DDD.A",
+			"...A...",
+			"..AAA.." }, 1, true, true, EscapeRey.BORDE, CapturaRey.RODEO_JUNTO_AL_TRONO, true);
+
+	/**
+	 * Tablut: tablero de 9x9 sin provincias; el rey escapa por cualquier borde.
+	 */
+	public static final Variante TABLUT = new Variante("Tablut", new String[] {
+			"...AAA...",
+			"....A....",
+			"....D....",
+			"A...D...A",
+			"AADDRDDAA",
+			"A...D...A",
+			"....D....",
+			"....A....",
+			"...AAA..." }, 0, false, true, EscapeRey.BORDE, CapturaRey.RODEO_JUNTO_AL_TRONO, true);
+
+	/**
+	 * Hnefatafl: tablero de 11x11; el rey escapa por las provincias y hay que
+	 * rodearlo para capturarlo.
+	 */
+	public static final Variante HNEFATAFL = new Variante("Hnefatafl", new String[] {
+			"...AAAAA...",
+			".....A.....",
+			"...........",
+			"A....D....A",
+			"A...DDD...A",
+			"AA.DDRDD.AA",
+			"A...DDD...A",
+			"A....D....A",
+			"...........",
+			".....A.....",
+			"...AAAAA..." }, 0, true, true, EscapeRey.PROVINCIAS, CapturaRey.RODEO, true);
+
+	/**
+	 * Reglas del Brandubh sin configuración inicial, para tableros de cualquier
+	 * tamaño en los que las piezas se colocan con colocarPiezas.
+	 */
+	public static final Variante GENERICA = new Variante("Tafl", null, 0, true, true, EscapeRey.PROVINCIAS,
+			CapturaRey.RODEO_JUNTO_AL_TRONO, true);
+
+	/**
+	 * Constructor de la clase. Comprueba que la descripción es coherente: la
+	 * configuración inicial es cuadrada, de tamaño impar dentro de los límites
+	 * del tablero, solo tiene caracteres válidos y un único rey; el alcance no es
+	 * negativo y el rey no escapa por provincias que no existen. En caso contrario
+	 * lanza una excepción no comprobable IllegalArgumentException. La
+	 * configuración se copia para que no se pueda modificar desde fuera.
+	 * 
+	 * @param nombre               Nombre de la variante.
+	 * @param configuracionInicial Filas de la configuración inicial o nulo.
+	 * @param alcance              Alcance máximo o 0 si no hay límite.
+	 * @param provincias           Si las esquinas son casillas especiales.
+	 * @param tronoHostil          Si el trono vacío es hostil.
+	 * @param escape               Casillas de escape del rey.
+	 * @param capturaRey           Forma de capturar al rey.
+	 * @param reyArmado            Si el rey participa en las capturas.
+	 */
+	public Variante {
+		if (nombre == null || escape == null || capturaRey == null) {
+			throw new IllegalArgumentException("Argumento nulo");
+		}
+		if (alcance < 0) {
+			throw new IllegalArgumentException("Alcance negativo");
+		}
+		if (escape == EscapeRey.PROVINCIAS && !provincias) {
+			throw new IllegalArgumentException("El rey no puede escapar por provincias que no existen");
+		}
+		if (configuracionInicial != null) {
+			configuracionInicial = configuracionInicial.clone();
+			int tamaño = configuracionInicial.length;
+			if (tamaño < Geometria.TAMAÑO_MINIMO || tamaño > Geometria.TAMAÑO_MAXIMO || tamaño % 2 == 0) {
+				throw new IllegalArgumentException("Tamaño de tablero incorrecto: " + tamaño);
+			}
+			int reyes = 0;
+			for (String fila : configuracionInicial) {
+				if (fila == null || fila.length() != tamaño) {
+					throw new IllegalArgumentException("La configuración inicial debe ser cuadrada");
+				}
+				for (int columna = 0; columna < tamaño; columna++) {
+					char caracter = fila.charAt(columna);
+					if (caracter == 'R') {
+						reyes++;
+					} else if (caracter != 'A' && caracter != 'D' && caracter != '.') {
+						throw new IllegalArgumentException("Carácter incorrecto en la configuración: " + caracter);
+					}
+				}
+			}
+			if (reyes != 1) {
+				throw new IllegalArgumentException("La configuración inicial debe tener un rey");
+			}
+		}
+	}
+
+	/**
+	 * Devuelve las filas de la configuración inicial, o nulo si no tiene. Se
+	 * devuelve una copia para que no se pueda modificar la variante.
+	 * 
+	 * @return configuracionInicial Copia de las filas de la configuración.
+	 */
+	@Override
+	public String[] configuracionInicial() {
+		if (configuracionInicial == null) {
+			return null;
+		}
+		return configuracionInicial.clone();
+	}
+
+	/**
+	 * Devuelve el tamaño del tablero de la variante, o 0 si no tiene
+	 * configuración inicial y se puede jugar en cualquier tamaño.
+	 * 
+	 * @return tamaño Número de filas y de columnas del tablero.
+	 */
+	public int consultarTamaño() {
+		if (configuracionInicial == null) {
+			return 0;
+		}
+		return configuracionInicial.length;
+	}
+
+	/**
+	 * Devuelve el nombre de la variante.
+	 * 
+	 * @return nombre Nombre de la variante.
+	 */
+	public String consultarNombre() {
+		return nombre;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hash(nombre, alcance, provincias, tronoHostil, escape, capturaRey, reyArmado)
+				+ Arrays.hashCode(configuracionInicial);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Variante other = (Variante) obj;
+		return Objects.equals(nombre, other.nombre) && Arrays.equals(configuracionInicial, other.configuracionInicial)
+				&& alcance == other.alcance && provincias == other.provincias && tronoHostil == other.tronoHostil
+				&& escape == other.escape && capturaRey == other.capturaRey && reyArmado == other.reyArmado;
+	}
+
+	@Override
+	public String toString() {
+		return "Variante [nombre=" + nombre + ", configuracionInicial=" + Arrays.toString(configuracionInicial)
+				+ ", alcance=" + alcance + ", provincias=" + provincias + ", tronoHostil=" + tronoHostil + ", escape="
+				+ escape + ", capturaRey=" + capturaRey + ", reyArmado=" + reyArmado + "]";
+	}
+}
@@ -0,0 +1,461 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.ia;
+
+import java.util.Arrays;
+
+import tafl.control.Arbitro;
+import tafl.modelo.Geometria;
+import tafl.modelo.Tablero;
+import tafl.util.Color;
+import tafl.util.EscapeRey;
+import tafl.util.TipoPieza;
+
+/**
+ * Clase Buscador. Jugador automático: elige la jugada del turno actual con una
+ * búsqueda negamax con poda alfa-beta sobre el propio árbitro. Las jugadas se
+ * generan con generarJugadasLegales en arrays reservados una vez por nivel y
+ * se recorren con hacerJugada y deshacerJugada, de modo que la búsqueda no
+ * crea objetos ni copia el tablero.
+ * 
+ * La búsqueda se repite con profundidad creciente (profundización iterativa)
+ * hasta agotar la profundidad máxima, el número de nodos o el tiempo
+ * configurados. Cada iteración prueba primero la variante principal de la
+ * anterior y las jugadas que han provocado cortes en el mismo nivel (jugadas
+ * asesinas), con lo que la poda es mucho mayor que con el orden de generación.
+ * Si el presupuesto se agota a mitad de una iteración, se devuelve el resultado
+ * de la última completada.
+ * 
+ * Las hojas se puntúan con una evaluación estática sencilla: material, la
+ * distancia del rey a la casilla de escape más cercana y los atacantes que lo
+ * rodean. Mientras busca, el buscador usa el árbitro, que no se debe consultar
+ * ni modificar desde otro hilo hasta que termine. Al terminar queda en el mismo
+ * estado.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class Buscador {
+	/**
+	 * Puntuación de una victoria en la posición actual. Una victoria a n jugadas
+	 * vale VICTORIA - n, para preferir la más rápida, y una derrota lo contrario.
+	 */
+	public static final int VICTORIA = 1_000_000;
+	/**
+	 * Profundidad máxima de la búsqueda, en jugadas.
+	 */
+	public static final int PROFUNDIDAD_MAXIMA = 64;
+	/**
+	 * Límite de tiempo por defecto, en milisegundos.
+	 */
+	public static final long LIMITE_TIEMPO_POR_DEFECTO = 1000;
+	/**
+	 * Cota de las puntuaciones, mayor que cualquier victoria.
+	 */
+	private static final int INFINITO = VICTORIA + 1;
+	/**
+	 * Cada cuántos nodos (menos uno, porque es una máscara) se consulta el reloj.
+	 */
+	private static final long MASCARA_RELOJ = 1023;
+	/**
+	 * Valor de cada atacante.
+	 */
+	private static final int PESO_ATACANTE = 100;
+	/**
+	 * Valor de cada defensor. Hay la mitad que de atacantes, así que valen más.
+	 */
+	private static final int PESO_DEFENSOR = 180;
+	/**
+	 * Penalización para el defensor por cada casilla que separa al rey de su
+	 * escape más cercano.
+	 */
+	private static final int PESO_DISTANCIA_ESCAPE = 15;
+	/**
+	 * Penalización para el defensor por cada atacante contiguo al rey.
+	 */
+	private static final int PESO_ASEDIO_REY = 40;
+	/**
+	 * Número de jugadas asesinas que se guardan por nivel.
+	 */
+	private static final int NUMERO_ASESINAS = 2;
+	/**
+	 * Árbitro de la partida, sobre el que se hacen y deshacen las jugadas.
+	 */
+	private final Arbitro arbitro;
+	/**
+	 * Geometría del tablero.
+	 */
+	private final Geometria geometria;
+	/**
+	 * Distancia, en casillas, de cada casilla a la casilla de escape del rey más
+	 * cercana según la variante.
+	 */
+	private final int[] distanciaEscape;
+	/**
+	 * Jugadas generadas en cada nivel de la búsqueda. Cada nivel se reserva la
+	 * primera vez que se alcanza.
+	 */
+	private final int[][] jugadas;
+	/**
+	 * Tabla triangular de variantes principales: la fila de cada nivel guarda, a
+	 * partir de su propia posición, la mejor línea encontrada desde ese nivel.
+	 */
+	private final int[][] variantes;
+	/**
+	 * Longitud de la variante de cada nivel: índice siguiente a su última
+	 * jugada.
+	 */
+	private final int[] longitudVariante;
+	/**
+	 * Variante principal de la última iteración completada, que se prueba
+	 * primero en la siguiente.
+	 */
+	private final int[] variantePrevia;
+	/**
+	 * Número de jugadas de variantePrevia.
+	 */
+	private int longitudPrevia;
+	/**
+	 * Jugadas asesinas de cada nivel: las últimas que produjeron un corte.
+	 */
+	private final int[][] asesinas;
+	/**
+	 * Profundidad máxima configurada.
+	 */
+	private int profundidadMaxima;
+	/**
+	 * Número máximo de nodos, o cero si no hay límite.
+	 */
+	private long limiteNodos;
+	/**
+	 * Tiempo máximo en milisegundos, o cero si no hay límite.
+	 */
+	private long limiteTiempo;
+	/**
+	 * Tablero del árbitro durante la búsqueda en curso.
+	 */
+	private Tablero tablero;
+	/**
+	 * Nodos visitados en la búsqueda en curso.
+	 */
+	private long nodos;
+	/**
+	 * Instante, según System.nanoTime, en el que se agota el tiempo.
+	 */
+	private long instanteLimite;
+	/**
+	 * Indica si la búsqueda en curso ha agotado su presupuesto.
+	 */
+	private boolean detenida;
+
+	/**
+	 * Crea un buscador para el árbitro indicado, con la profundidad máxima, sin
+	 * límite de nodos y con LIMITE_TIEMPO_POR_DEFECTO. Si el árbitro vale nulo,
+	 * lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param arbitro Árbitro de la partida.
+	 */
+	public Buscador(Arbitro arbitro) {
+		if (arbitro == null) {
+			throw new IllegalArgumentException("Árbitro nulo");
+		}
+		this.arbitro = arbitro;
+		this.geometria = arbitro.consultarTablero().consultarGeometria();
+		this.distanciaEscape = calcularDistanciaEscape(geometria, arbitro.consultarVariante().escape());
+		this.jugadas = new int[PROFUNDIDAD_MAXIMA][];
+		this.variantes = new int[PROFUNDIDAD_MAXIMA + 1][PROFUNDIDAD_MAXIMA];
+		this.longitudVariante = new int[PROFUNDIDAD_MAXIMA + 1];
+		this.variantePrevia = new int[PROFUNDIDAD_MAXIMA];
+		this.asesinas = new int[PROFUNDIDAD_MAXIMA][NUMERO_ASESINAS];
+		this.profundidadMaxima = PROFUNDIDAD_MAXIMA;
+		this.limiteNodos = 0;
+		this.limiteTiempo = LIMITE_TIEMPO_POR_DEFECTO;
+	}
+
+	/**
+	 * Fija la profundidad máxima de la búsqueda, en jugadas. Si no está entre 1 y
+	 * PROFUNDIDAD_MAXIMA lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param profundidad Profundidad máxima.
+	 */
+	public void configurarProfundidadMaxima(int profundidad) {
+		if (profundidad < 1 || profundidad > PROFUNDIDAD_MAXIMA) {
+			throw new IllegalArgumentException("Profundidad incorrecta");
+		}
+		this.profundidadMaxima = profundidad;
+	}
+
+	/**
+	 * Fija el número máximo de nodos de cada búsqueda, o cero para no limitarlo.
+	 * Si es negativo lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param limite Número máximo de nodos.
+	 */
+	public void configurarLimiteNodos(long limite) {
+		if (limite < 0) {
+			throw new IllegalArgumentException("Límite de nodos negativo");
+		}
+		this.limiteNodos = limite;
+	}
+
+	/**
+	 * Fija el tiempo máximo de cada búsqueda en milisegundos, o cero para no
+	 * limitarlo. Si es negativo lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param milisegundos Tiempo máximo.
+	 */
+	public void configurarLimiteTiempo(long milisegundos) {
+		if (milisegundos < 0) {
+			throw new IllegalArgumentException("Límite de tiempo negativo");
+		}
+		this.limiteTiempo = milisegundos;
+	}
+
+	/**
+	 * Busca la mejor jugada para el turno actual del árbitro. Si la partida ya ha
+	 * terminado o el turno no puede mover, el resultado no tiene jugada. Si el
+	 * presupuesto se agota antes de completar la primera iteración, se devuelve
+	 * la mejor jugada encontrada hasta entonces o, si no hay ninguna, la primera
+	 * jugada legal.
+	 * 
+	 * @return resultado Resultado de la búsqueda.
+	 */
+	public ResultadoBusqueda buscar() {
+		long inicio = System.nanoTime();
+		tablero = arbitro.consultarTablero();
+		nodos = 1;
+		instanteLimite = inicio + limiteTiempo * 1_000_000;
+		detenida = false;
+		longitudPrevia = 0;
+		for (int[] asesinasNivel : asesinas) {
+			Arrays.fill(asesinasNivel, -1);
+		}
+		if (arbitro.haGanadoAtacante() || arbitro.haGanadoRey() || arbitro.hayTablas()) {
+			return new ResultadoBusqueda(new int[0], 0, 0, nodos, System.nanoTime() - inicio);
+		}
+		int puntuacion = 0;
+		int profundidad = 0;
+		for (int iteracion = 1; iteracion <= profundidadMaxima; iteracion++) {
+			int valor = buscar(iteracion, 0, -INFINITO, INFINITO);
+			if (detenida) {
+				break;
+			}
+			puntuacion = valor;
+			profundidad = iteracion;
+			longitudPrevia = longitudVariante[0];
+			System.arraycopy(variantes[0], 0, variantePrevia, 0, longitudPrevia);
+			if (Math.abs(puntuacion) >= VICTORIA - PROFUNDIDAD_MAXIMA) {
+				// El resultado ya es forzado, buscar más no lo cambia.
+				break;
+			}
+		}
+		if (profundidad == 0) {
+			// No se ha completado ninguna iteración.
+			if (longitudVariante[0] > 0) {
+				longitudPrevia = 1;
+				variantePrevia[0] = variantes[0][0];
+			} else if (jugadas[0] != null && arbitro.generarJugadasLegales(jugadas[0]) > 0) {
+				longitudPrevia = 1;
+				variantePrevia[0] = jugadas[0][0];
+			}
+		}
+		int[] variantePrincipal = new int[longitudPrevia];
+		System.arraycopy(variantePrevia, 0, variantePrincipal, 0, longitudPrevia);
+		return new ResultadoBusqueda(variantePrincipal, puntuacion, profundidad, nodos, System.nanoTime() - inicio);
+	}
+
+	/**
+	 * Búsqueda negamax con poda alfa-beta desde la posición actual del árbitro.
+	 * La puntuación es desde el punto de vista del turno que mueve. Si la
+	 * búsqueda se detiene, el valor devuelto no es válido.
+	 * 
+	 * @param profundidad Jugadas que quedan por explorar.
+	 * @param nivel       Jugadas hechas desde la posición inicial.
+	 * @param alfa        Puntuación mínima que el turno ya tiene asegurada.
+	 * @param beta        Puntuación máxima que el contrario le permite.
+	 * @return puntuacion Puntuación de la posición, acotada entre alfa y beta.
+	 */
+	private int buscar(int profundidad, int nivel, int alfa, int beta) {
+		longitudVariante[nivel] = nivel;
+		if (profundidad == 0 || nivel == PROFUNDIDAD_MAXIMA) {
+			return evaluar();
+		}
+		if (jugadas[nivel] == null) {
+			jugadas[nivel] = new int[geometria.consultarMaximoJugadas()];
+		}
+		int[] jugadasNivel = jugadas[nivel];
+		int numero = arbitro.generarJugadasLegales(jugadasNivel);
+		if (numero == 0) {
+			// El turno no puede mover: pierde por bloqueo.
+			return -VICTORIA + nivel;
+		}
+		ordenar(jugadasNivel, numero, nivel);
+		for (int i = 0; i < numero; i++) {
+			int jugada = jugadasNivel[i];
+			nodos++;
+			arbitro.hacerJugada(jugada);
+			longitudVariante[nivel + 1] = nivel + 1;
+			int puntuacion;
+			if (arbitro.haGanadoAtacante() || arbitro.haGanadoRey()) {
+				// Solo se gana con una jugada propia: gana el turno que acaba de mover.
+				puntuacion = VICTORIA - nivel - 1;
+			} else if (arbitro.hayTablas()) {
+				puntuacion = 0;
+			} else {
+				puntuacion = -buscar(profundidad - 1, nivel + 1, -beta, -alfa);
+			}
+			arbitro.deshacerJugada();
+			if (detenida || comprobarPresupuesto()) {
+				return 0;
+			}
+			if (puntuacion > alfa) {
+				alfa = puntuacion;
+				actualizarVariante(nivel, jugada);
+				if (alfa >= beta) {
+					guardarAsesina(nivel, jugada);
+					break;
+				}
+			}
+		}
+		return alfa;
+	}
+
+	/**
+	 * Comprueba si la búsqueda ha agotado el número de nodos o el tiempo, y en ese
+	 * caso la marca como detenida. El reloj solo se consulta cada
+	 * MASCARA_RELOJ + 1 nodos.
+	 * 
+	 * @return detenida true si se ha agotado el presupuesto, false en caso
+	 *         contrario.
+	 */
+	private boolean comprobarPresupuesto() {
+		if (limiteNodos > 0 && nodos >= limiteNodos) {
+			detenida = true;
+		} else if (limiteTiempo > 0 && (nodos & MASCARA_RELOJ) == 0 && System.nanoTime() - instanteLimite >= 0) {
+			detenida = true;
+		}
+		return detenida;
+	}
+
+	/**
+	 * Pone delante las jugadas que probablemente son mejores: la de la variante
+	 * principal de la iteración anterior en este nivel y las asesinas del nivel.
+	 * El resto queda en el orden de generación.
+	 * 
+	 * @param jugadasNivel Jugadas del nivel.
+	 * @param numero       Número de jugadas.
+	 * @param nivel        Nivel de la búsqueda.
+	 */
+	private void ordenar(int[] jugadasNivel, int numero, int nivel) {
+		int siguiente = 0;
+		if (nivel < longitudPrevia) {
+			siguiente = adelantar(jugadasNivel, numero, siguiente, variantePrevia[nivel]);
+		}
+		for (int asesina : asesinas[nivel]) {
+			siguiente = adelantar(jugadasNivel, numero, siguiente, asesina);
+		}
+	}
+
+	/**
+	 * Si la jugada está entre las jugadas del nivel a partir de la posición
+	 * indicada, la intercambia con la de esa posición.
+	 * 
+	 * @param jugadasNivel Jugadas del nivel.
+	 * @param numero       Número de jugadas.
+	 * @param posicion     Posición a la que se adelanta la jugada.
+	 * @param jugada       Jugada a adelantar, o -1.
+	 * @return siguiente Siguiente posición libre para adelantar jugadas.
+	 */
+	private static int adelantar(int[] jugadasNivel, int numero, int posicion, int jugada) {
+		if (jugada >= 0) {
+			for (int i = posicion; i < numero; i++) {
+				if (jugadasNivel[i] == jugada) {
+					jugadasNivel[i] = jugadasNivel[posicion];
+					jugadasNivel[posicion] = jugada;
+					return posicion + 1;
+				}
+			}
+		}
+		return posicion;
+	}
+
+	/**
+	 * Guarda como variante del nivel la jugada seguida de la variante del nivel
+	 * siguiente.
+	 * 
+	 * @param nivel  Nivel de la búsqueda.
+	 * @param jugada Nueva mejor jugada del nivel.
+	 */
+	private void actualizarVariante(int nivel, int jugada) {
+		int[] variante = variantes[nivel];
+		variante[nivel] = jugada;
+		int longitud = longitudVariante[nivel + 1];
+		System.arraycopy(variantes[nivel + 1], nivel + 1, variante, nivel + 1, longitud - nivel - 1);
+		longitudVariante[nivel] = Math.max(longitud, nivel + 1);
+	}
+
+	/**
+	 * Guarda la jugada como asesina del nivel, desplazando la más antigua.
+	 * 
+	 * @param nivel  Nivel de la búsqueda.
+	 * @param jugada Jugada que ha producido un corte.
+	 */
+	private void guardarAsesina(int nivel, int jugada) {
+		int[] asesinasNivel = asesinas[nivel];
+		if (asesinasNivel[0] != jugada) {
+			asesinasNivel[1] = asesinasNivel[0];
+			asesinasNivel[0] = jugada;
+		}
+	}
+
+	/**
+	 * Evaluación estática de la posición desde el punto de vista del turno que
+	 * mueve: material, distancia del rey a su escape más cercano y atacantes
+	 * contiguos al rey.
+	 * 
+	 * @return puntuacion Puntuación de la posición.
+	 */
+	private int evaluar() {
+		int puntuacion = PESO_DEFENSOR * tablero.consultarNumeroPiezas(TipoPieza.DEFENSOR)
+				- PESO_ATACANTE * tablero.consultarNumeroPiezas(TipoPieza.ATACANTE);
+		int rey = tablero.consultarCasillaRey();
+		if (rey >= 0) {
+			puntuacion -= PESO_DISTANCIA_ESCAPE * distanciaEscape[rey];
+			for (int i = 0; i < geometria.consultarNumeroVecinos(rey); i++) {
+				if (tablero.consultarTipoPieza(geometria.consultarVecino(rey, i)) == TipoPieza.ATACANTE) {
+					puntuacion -= PESO_ASEDIO_REY;
+				}
+			}
+		}
+		if (arbitro.consultarTurno() == Color.NEGRO) {
+			return -puntuacion;
+		}
+		return puntuacion;
+	}
+
+	/**
+	 * Calcula la distancia de cada casilla a la casilla de escape del rey más
+	 * cercana: la esquina más cercana si escapa por las provincias, o el borde
+	 * más cercano si escapa por cualquier borde.
+	 * 
+	 * @param geometria Geometría del tablero.
+	 * @param escape    Casillas de escape del rey.
+	 * @return distancias Distancia de cada casilla, indexada por casilla.
+	 */
+	private static int[] calcularDistanciaEscape(Geometria geometria, EscapeRey escape) {
+		int ultima = geometria.consultarTamaño() - 1;
+		int[] distancias = new int[geometria.consultarNumeroCasillas()];
+		for (int casilla = 0; casilla < distancias.length; casilla++) {
+			int fila = Math.min(geometria.consultarFila(casilla), ultima - geometria.consultarFila(casilla));
+			int columna = Math.min(geometria.consultarColumna(casilla), ultima - geometria.consultarColumna(casilla));
+			if (escape == EscapeRey.BORDE) {
+				distancias[casilla] = Math.min(fila, columna);
+			} else {
+				distancias[casilla] = fila + columna;
+			}
+		}
+		return distancias;
+	}
+}
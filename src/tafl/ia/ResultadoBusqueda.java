@@ -0,0 +1,159 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.ia;
+
+import java.util.Arrays;
+
+/**
+ * Clase ResultadoBusqueda. Resultado de una búsqueda de Buscador: la mejor
+ * jugada encontrada, su puntuación, la variante principal (la secuencia de
+ * jugadas que el buscador espera de los dos jugadores) y lo que ha costado
+ * encontrarla. Es inmutable.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class ResultadoBusqueda {
+	/**
+	 * Variante principal, con las jugadas codificadas con JugadaCompacta. La
+	 * primera es la mejor jugada.
+	 */
+	private final int[] variantePrincipal;
+	/**
+	 * Puntuación de la mejor jugada desde el punto de vista del turno que busca.
+	 */
+	private final int puntuacion;
+	/**
+	 * Profundidad de la última iteración completada.
+	 */
+	private final int profundidad;
+	/**
+	 * Número de nodos visitados.
+	 */
+	private final long nodos;
+	/**
+	 * Tiempo empleado, en nanosegundos.
+	 */
+	private final long nanosegundos;
+
+	/**
+	 * Crea el resultado. Solo lo construye Buscador.
+	 * 
+	 * @param variantePrincipal Variante principal, que pasa a ser del resultado.
+	 * @param puntuacion        Puntuación de la mejor jugada.
+	 * @param profundidad       Profundidad de la última iteración completada.
+	 * @param nodos             Número de nodos visitados.
+	 * @param nanosegundos      Tiempo empleado, en nanosegundos.
+	 */
+	ResultadoBusqueda(int[] variantePrincipal, int puntuacion, int profundidad, long nodos, long nanosegundos) {
+		this.variantePrincipal = variantePrincipal;
+		this.puntuacion = puntuacion;
+		this.profundidad = profundidad;
+		this.nodos = nodos;
+		this.nanosegundos = nanosegundos;
+	}
+
+	/**
+	 * Comprueba si se ha encontrado alguna jugada. No la hay si la partida ya
+	 * había terminado o el turno no podía mover.
+	 * 
+	 * @return true si hay jugada, false en caso contrario.
+	 */
+	public boolean tieneJugada() {
+		return variantePrincipal.length > 0;
+	}
+
+	/**
+	 * Devuelve la mejor jugada encontrada, codificada con JugadaCompacta, o -1 si
+	 * no hay ninguna.
+	 * 
+	 * @return jugada Jugada codificada o -1.
+	 */
+	public int consultarJugada() {
+		if (variantePrincipal.length == 0) {
+			return -1;
+		}
+		return variantePrincipal[0];
+	}
+
+	/**
+	 * Devuelve la puntuación de la mejor jugada desde el punto de vista del turno
+	 * que ha buscado: positiva si le es favorable. Las victorias y derrotas
+	 * forzadas valen más que cualquier evaluación; se reconocen con
+	 * esVictoria y esDerrota.
+	 * 
+	 * @return puntuacion Puntuación de la jugada.
+	 */
+	public int consultarPuntuacion() {
+		return puntuacion;
+	}
+
+	/**
+	 * Comprueba si la puntuación es una victoria forzada del turno que ha buscado.
+	 * 
+	 * @return true si es una victoria forzada, false en caso contrario.
+	 */
+	public boolean esVictoria() {
+		return puntuacion >= Buscador.VICTORIA - Buscador.PROFUNDIDAD_MAXIMA;
+	}
+
+	/**
+	 * Comprueba si la puntuación es una derrota forzada del turno que ha buscado.
+	 * 
+	 * @return true si es una derrota forzada, false en caso contrario.
+	 */
+	public boolean esDerrota() {
+		return puntuacion <= -Buscador.VICTORIA + Buscador.PROFUNDIDAD_MAXIMA;
+	}
+
+	/**
+	 * Devuelve la profundidad, en jugadas, de la última iteración completada.
+	 * 
+	 * @return profundidad Profundidad alcanzada.
+	 */
+	public int consultarProfundidad() {
+		return profundidad;
+	}
+
+	/**
+	 * Devuelve una copia de la variante principal, con las jugadas codificadas
+	 * con JugadaCompacta.
+	 * 
+	 * @return variantePrincipal Jugadas de la variante principal.
+	 */
+	public int[] consultarVariantePrincipal() {
+		return Arrays.copyOf(variantePrincipal, variantePrincipal.length);
+	}
+
+	/**
+	 * Devuelve el número de nodos visitados: la posición inicial y cada jugada
+	 * hecha durante la búsqueda.
+	 * 
+	 * @return nodos Número de nodos.
+	 */
+	public long consultarNumeroNodos() {
+		return nodos;
+	}
+
+	/**
+	 * Devuelve el tiempo empleado en la búsqueda, en milisegundos.
+	 * 
+	 * @return milisegundos Tiempo empleado.
+	 */
+	public long consultarTiempo() {
+		return nanosegundos / 1_000_000;
+	}
+
+	/**
+	 * Devuelve el número de nodos visitados por segundo.
+	 * 
+	 * @return nodosPorSegundo Nodos por segundo, o 0 si no ha dado tiempo a
+	 *         medirlo.
+	 */
+	public long consultarNodosPorSegundo() {
+		if (nanosegundos == 0) {
+			return 0;
+		}
+		return nodos * 1_000_000_000L / nanosegundos;
+	}
+}
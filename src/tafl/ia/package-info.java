@@ -0,0 +1,9 @@
+/**
+ * Contiene el jugador automático. El buscador elige la jugada del turno actual
+ * explorando las jugadas posibles con el propio árbitro, haciéndolas y
+ * deshaciéndolas sobre su tablero.
+ * 
+ * @since 1.0
+ */
+
+package tafl.ia;
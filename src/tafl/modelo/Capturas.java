@@ -0,0 +1,105 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import tafl.util.Sentido;
+
+/**
+ * Clase Capturas. Resolución de las capturas por custodia sobre máscaras de
+ * casillas, sin consultar celdas ni piezas. Son funciones puras: solo leen las
+ * máscaras que reciben, por lo que sirven igual para el tablero real que para
+ * evaluar una jugada sobre una copia de sus máscaras.
+ * 
+ * Una pieza enemiga contigua al destino se captura si la casilla del otro lado
+ * es hostil. En cada sentido basta con desplazar la máscara de casillas hostiles
+ * una posición hacia el destino y hacer un AND con la de piezas enemigas: queda
+ * marcada la pieza contigua si se captura.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class Capturas {
+	/**
+	 * Sentidos en los que se buscan capturas. Se guarda el array para no copiarlo
+	 * en cada llamada a Sentido.values().
+	 */
+	private static final Sentido[] SENTIDOS = Sentido.values();
+	/**
+	 * Número de bits de cada palabra de una máscara.
+	 */
+	private static final int BITS_PALABRA = Long.SIZE;
+
+	/**
+	 * Oculta el constructor por defecto.
+	 */
+	private Capturas() {
+	}
+
+	/**
+	 * Escribe en el resultado las casillas hostiles para las piezas enemigas de
+	 * las indicadas: las ocupadas por esas piezas y las casillas especiales que
+	 * son hostiles cuando están vacías (el trono y las provincias, según la
+	 * variante). El resultado puede ser el mismo array que el de las piezas
+	 * propias.
+	 * 
+	 * @param geometria  Geometría del tablero.
+	 * @param propias    Máscara de las piezas del color que captura.
+	 * @param ocupadas   Máscara de todas las casillas ocupadas.
+	 * @param especiales Máscara de las casillas hostiles cuando están vacías.
+	 * @param hostiles   Máscara donde se escriben las casillas hostiles.
+	 */
+	public static void calcularHostiles(Geometria geometria, long[] propias, long[] ocupadas, long[] especiales,
+			long[] hostiles) {
+		for (int palabra = 0; palabra < geometria.consultarNumeroPalabras(); palabra++) {
+			hostiles[palabra] = propias[palabra] | especiales[palabra] & ~ocupadas[palabra];
+		}
+	}
+
+	/**
+	 * Escribe en el resultado las casillas que están entre dos casillas hostiles
+	 * en la misma fila o columna: la máscara hostil desplazada hacia el este y
+	 * hacia el oeste coincide, o desplazada hacia el norte y hacia el sur. Con la
+	 * máscara de casillas hostiles para un color, son las casillas a las que no
+	 * puede moverse una pieza de ese color. El resultado no puede ser la misma
+	 * máscara que la de entrada.
+	 * 
+	 * @param geometria Geometría del tablero.
+	 * @param hostiles  Máscara de casillas hostiles.
+	 * @param resultado Máscara donde se escriben las casillas entre hostiles.
+	 */
+	public static void calcularEntreHostiles(Geometria geometria, long[] hostiles, long[] resultado) {
+		for (int palabra = 0; palabra < geometria.consultarNumeroPalabras(); palabra++) {
+			resultado[palabra] = geometria.consultarPalabraDesplazada(hostiles, Sentido.HORIZONTAL_E, palabra)
+					& geometria.consultarPalabraDesplazada(hostiles, Sentido.HORIZONTAL_O, palabra)
+					| geometria.consultarPalabraDesplazada(hostiles, Sentido.VERTICAL_N, palabra)
+							& geometria.consultarPalabraDesplazada(hostiles, Sentido.VERTICAL_S, palabra);
+		}
+	}
+
+	/**
+	 * Calcula las piezas capturadas por custodia al llegar una pieza a la casilla
+	 * destino. Solo se calcula, en cada sentido, la palabra de la máscara que
+	 * contiene a la casilla contigua al destino.
+	 * 
+	 * @param geometria Geometría del tablero.
+	 * @param destino   Índice de la casilla a la que se ha movido la pieza.
+	 * @param enemigas  Máscara de las piezas que se pueden capturar por custodia.
+	 * @param hostiles  Máscara de las casillas hostiles para esas piezas.
+	 * @return capturas Piezas capturadas, con un bit por cada sentido (por
+	 *         ordinal) en el que está la pieza capturada.
+	 */
+	public static int calcular(Geometria geometria, int destino, long[] enemigas, long[] hostiles) {
+		int capturas = 0;
+		for (Sentido sentido : SENTIDOS) {
+			int vecina = geometria.consultarVecino(sentido, destino);
+			if (vecina >= 0) {
+				int palabra = vecina / BITS_PALABRA;
+				// La casilla hostil del otro lado se desplaza hasta la vecina.
+				long capturables = enemigas[palabra]
+						& geometria.consultarPalabraDesplazada(hostiles, sentido.consultarOpuesto(), palabra);
+				capturas |= (int) (capturables >>> vecina & 1) << sentido.ordinal();
+			}
+		}
+		return capturas;
+	}
+}
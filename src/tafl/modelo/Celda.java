@@ -49,16 +49,14 @@ public class Celda {
 	}
 
 	/**
-	 * Clona la Celda. Devuelve clon en profundidad de la celda actual. Copia
-	 * también la pieza que contiene, si la hay.
+	 * Clona la Celda. Devuelve un clon de la celda actual que comparte la
+	 * coordenada y la pieza, ya que ambas son inmutables.
 	 * 
-	 * @return celda Clon en profundidad
+	 * @return celda Clon de la celda.
 	 */
 	public Celda clonar() {
 		Celda celda = new Celda(this.coordenada, this.tipo);
-		if (this.pieza != null) {
-			celda.pieza = this.pieza.clonar();
-		}
+		celda.pieza = this.pieza;
 		return celda;
 	}
 
@@ -0,0 +1,185 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import tafl.util.TipoPieza;
+
+/**
+ * Clase DiferenciaTablero. Casillas que cambian entre dos tableros del mismo
+ * tamaño, con el tipo de pieza que tenían en el tablero anterior y el que
+ * tienen en el nuevo. Tras una jugada solo cambian el origen, el destino y las
+ * piezas capturadas, por lo que basta con enviar la diferencia para que un
+ * observador con una copia del tablero anterior se ponga al día con aplicar.
+ * 
+ * Cada cambio se codifica en un entero: bits 0 a 8 la casilla, bits 9 a 10 el
+ * tipo de pieza anterior y bits 11 a 12 el nuevo (ordinal más uno, 0 si la
+ * casilla está vacía). Es inmutable.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class DiferenciaTablero {
+	/**
+	 * Número de bits reservados para el índice de casilla.
+	 */
+	private static final int BITS_CASILLA = 9;
+	/**
+	 * Número de bits reservados para cada tipo de pieza.
+	 */
+	private static final int BITS_TIPO = 2;
+	/**
+	 * Máscara para extraer el índice de casilla.
+	 */
+	private static final int MASCARA_CASILLA = (1 << BITS_CASILLA) - 1;
+	/**
+	 * Máscara para extraer un tipo de pieza, ya desplazado.
+	 */
+	private static final int MASCARA_TIPO = (1 << BITS_TIPO) - 1;
+	/**
+	 * Tipos de pieza indexados por su ordinal, para no copiar TipoPieza.values()
+	 * al decodificar.
+	 */
+	private static final TipoPieza[] TIPOS = TipoPieza.values();
+	/**
+	 * Geometría de los tableros comparados.
+	 */
+	private final Geometria geometria;
+	/**
+	 * Cambios codificados, en orden creciente de casilla.
+	 */
+	private final int[] cambios;
+
+	/**
+	 * Crea la diferencia con los cambios ya codificados. Solo la construye
+	 * Tablero.
+	 * 
+	 * @param geometria Geometría de los tableros comparados.
+	 * @param cambios   Cambios codificados.
+	 */
+	DiferenciaTablero(Geometria geometria, int[] cambios) {
+		this.geometria = geometria;
+		this.cambios = cambios;
+	}
+
+	/**
+	 * Codifica el cambio de una casilla.
+	 * 
+	 * @param casilla  Índice de la casilla.
+	 * @param anterior Tipo de pieza anterior, o nulo si estaba vacía.
+	 * @param nuevo    Tipo de pieza nuevo, o nulo si ha quedado vacía.
+	 * @return cambio Cambio codificado.
+	 */
+	static int codificar(int casilla, TipoPieza anterior, TipoPieza nuevo) {
+		return codificar(nuevo) << (BITS_CASILLA + BITS_TIPO) | codificar(anterior) << BITS_CASILLA | casilla;
+	}
+
+	/**
+	 * Devuelve el número de casillas que cambian.
+	 * 
+	 * @return numero Número de cambios.
+	 */
+	public int consultarNumeroCambios() {
+		return cambios.length;
+	}
+
+	/**
+	 * Comprueba si los dos tableros son iguales.
+	 * 
+	 * @return true si no hay cambios, false en caso contrario.
+	 */
+	public boolean estaVacia() {
+		return cambios.length == 0;
+	}
+
+	/**
+	 * Devuelve el índice de la casilla del cambio indicado (fila * número de
+	 * columnas + columna). Si el índice del cambio no es válido lanza una
+	 * excepción no comprobable ArrayIndexOutOfBoundsException.
+	 * 
+	 * @param indice Índice del cambio, de 0 a consultarNumeroCambios() - 1.
+	 * @return casilla Índice de la casilla.
+	 */
+	public int consultarCasilla(int indice) {
+		return cambios[indice] & MASCARA_CASILLA;
+	}
+
+	/**
+	 * Devuelve el tipo de pieza que había en la casilla del cambio indicado en el
+	 * tablero anterior, o nulo si estaba vacía.
+	 * 
+	 * @param indice Índice del cambio, de 0 a consultarNumeroCambios() - 1.
+	 * @return tipoPieza Tipo de pieza anterior o nulo.
+	 */
+	public TipoPieza consultarTipoPiezaAnterior(int indice) {
+		return decodificar(cambios[indice] >>> BITS_CASILLA);
+	}
+
+	/**
+	 * Devuelve el tipo de pieza que hay en la casilla del cambio indicado en el
+	 * tablero nuevo, o nulo si ha quedado vacía.
+	 * 
+	 * @param indice Índice del cambio, de 0 a consultarNumeroCambios() - 1.
+	 * @return tipoPieza Tipo de pieza nuevo o nulo.
+	 */
+	public TipoPieza consultarTipoPiezaNueva(int indice) {
+		return decodificar(cambios[indice] >>> (BITS_CASILLA + BITS_TIPO));
+	}
+
+	/**
+	 * Aplica los cambios al tablero indicado, que debe tener el contenido del
+	 * tablero anterior en las casillas que cambian. Si el tablero vale nulo, es de
+	 * otro tamaño o no coincide con el anterior en alguna casilla que cambia,
+	 * lanza una excepción no comprobable IllegalArgumentException sin modificar
+	 * el tablero.
+	 * 
+	 * @param tablero Tablero a poner al día.
+	 */
+	public void aplicar(Tablero tablero) {
+		if (tablero == null) {
+			throw new IllegalArgumentException("Tablero nulo");
+		}
+		if (tablero.consultarGeometria() != geometria) {
+			throw new IllegalArgumentException("El tablero es de otro tamaño");
+		}
+		for (int i = 0; i < cambios.length; i++) {
+			if (tablero.consultarTipoPieza(consultarCasilla(i)) != consultarTipoPiezaAnterior(i)) {
+				throw new IllegalArgumentException("El tablero no coincide con el tablero anterior");
+			}
+		}
+		for (int i = 0; i < cambios.length; i++) {
+			int casilla = consultarCasilla(i);
+			TipoPieza nuevo = consultarTipoPiezaNueva(i);
+			tablero.eliminarPieza(casilla);
+			if (nuevo != null) {
+				tablero.colocarPieza(nuevo, casilla);
+			}
+		}
+	}
+
+	/**
+	 * Codifica un tipo de pieza: su ordinal más uno, o 0 si vale nulo.
+	 * 
+	 * @param tipoPieza Tipo de pieza o nulo.
+	 * @return codigo Código del tipo de pieza.
+	 */
+	private static int codificar(TipoPieza tipoPieza) {
+		if (tipoPieza == null) {
+			return 0;
+		}
+		return tipoPieza.ordinal() + 1;
+	}
+
+	/**
+	 * Decodifica un tipo de pieza de los bits bajos del valor indicado.
+	 * 
+	 * @param codigo Valor cuyos bits bajos tienen el código.
+	 * @return tipoPieza Tipo de pieza o nulo.
+	 */
+	private static TipoPieza decodificar(int codigo) {
+		int tipo = codigo & MASCARA_TIPO;
+		if (tipo == 0) {
+			return null;
+		}
+		return TIPOS[tipo - 1];
+	}
+}
@@ -0,0 +1,585 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import java.util.Arrays;
+
+import tafl.util.Coordenada;
+import tafl.util.Sentido;
+import tafl.util.TipoCelda;
+
+/**
+ * Clase Geometria. Tablas precalculadas con las relaciones entre casillas de un
+ * tablero cuadrado de un tamaño dado, con la misma numeración que Tablero
+ * (fila * número de columnas + columna). Las máscaras de casillas se guardan en
+ * arrays de long, a 64 casillas por palabra, de forma que sirven igual para el
+ * tablero de 7x7 (una palabra) que para el de 19x19 (seis palabras).
+ * 
+ * Hay una única geometría por tamaño, que se calcula la primera vez que se pide
+ * y después se comparte entre todos los tableros de ese tamaño. Así recorrer
+ * los vecinos de una casilla no requiere crear listas ni comprobar bordes, y
+ * buscar la primera pieza en una dirección se reduce a un AND por palabra.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class Geometria {
+	/**
+	 * Tamaño mínimo del tablero (Brandubh y ArdRi).
+	 */
+	public static final int TAMAÑO_MINIMO = 7;
+	/**
+	 * Tamaño máximo del tablero (Alea Evangelii).
+	 */
+	public static final int TAMAÑO_MAXIMO = 19;
+	/**
+	 * Número de casillas del tablero más grande.
+	 */
+	public static final int NUMERO_MAXIMO_CASILLAS = TAMAÑO_MAXIMO * TAMAÑO_MAXIMO;
+	/**
+	 * Número de bits de cada palabra de una máscara.
+	 */
+	private static final int BITS_PALABRA = Long.SIZE;
+	/**
+	 * Geometrías ya calculadas, indexadas por tamaño.
+	 */
+	private static final Geometria[] GEOMETRIAS = new Geometria[TAMAÑO_MAXIMO + 1];
+	/**
+	 * Orden en el que se listan los vecinos: sur, norte, este y oeste.
+	 */
+	private static final Sentido[] ORDEN_VECINOS = { Sentido.VERTICAL_S, Sentido.VERTICAL_N, Sentido.HORIZONTAL_E,
+			Sentido.HORIZONTAL_O };
+	/**
+	 * Coordenadas compartidas, indexadas por fila y columna, válidas para
+	 * cualquier tamaño de tablero. Las coordenadas son inmutables, así que no hace
+	 * falta crear una nueva cada vez.
+	 */
+	private static final Coordenada[][] COORDENADAS = new Coordenada[TAMAÑO_MAXIMO][TAMAÑO_MAXIMO];
+
+	static {
+		for (int fila = 0; fila < TAMAÑO_MAXIMO; fila++) {
+			for (int columna = 0; columna < TAMAÑO_MAXIMO; columna++) {
+				COORDENADAS[fila][columna] = new Coordenada(fila, columna);
+			}
+		}
+	}
+
+	/**
+	 * Número de filas y de columnas del tablero.
+	 */
+	private final int tamaño;
+	/**
+	 * Número total de casillas del tablero.
+	 */
+	private final int numeroCasillas;
+	/**
+	 * Número de palabras de 64 bits que ocupa una máscara de casillas.
+	 */
+	private final int numeroPalabras;
+	/**
+	 * Para cada sentido (por ordinal), lo que cambia el índice de una casilla al
+	 * avanzar una posición en ese sentido.
+	 */
+	private final int[] pasos;
+	/**
+	 * Rayos: para cada sentido (por ordinal) y casilla, la máscara de las
+	 * casillas que hay desde ella hasta el borde del tablero en ese sentido, sin
+	 * incluirla.
+	 */
+	private final long[][][] rayos;
+	/**
+	 * Para cada sentido (por ordinal) y casilla, la última casilla del rayo (la
+	 * del borde), o -1 si el rayo está vacío.
+	 */
+	private final int[][] finRayos;
+	/**
+	 * Para cada sentido (por ordinal) y casilla, la casilla contigua en ese
+	 * sentido, o -1 si se sale del tablero.
+	 */
+	private final int[][] vecino;
+	/**
+	 * Para cada casilla, sus casillas contiguas: dos en las esquinas, tres en los
+	 * bordes y cuatro en el resto.
+	 */
+	private final int[][] vecinos;
+	/**
+	 * Para cada sentido (por ordinal), la máscara de las casillas a las que se
+	 * puede llegar avanzando una posición en ese sentido: las que tienen una
+	 * casilla contigua en el sentido opuesto. Al desplazar una máscara se
+	 * descartan con ella los bits que saltarían de una fila a la siguiente.
+	 */
+	private final long[][] llegadas;
+	/**
+	 * Tipo de celda de cada casilla.
+	 */
+	private final TipoCelda[] tiposCelda;
+	/**
+	 * Coordenada compartida de cada casilla.
+	 */
+	private final Coordenada[] coordenadas;
+
+	/**
+	 * Calcula todas las tablas para un tablero del tamaño indicado.
+	 * 
+	 * @param tamaño Número de filas y de columnas del tablero.
+	 */
+	private Geometria(int tamaño) {
+		this.tamaño = tamaño;
+		this.numeroCasillas = tamaño * tamaño;
+		this.numeroPalabras = (numeroCasillas + BITS_PALABRA - 1) / BITS_PALABRA;
+		Sentido[] sentidos = Sentido.values();
+		this.pasos = new int[sentidos.length];
+		this.rayos = new long[sentidos.length][numeroCasillas][numeroPalabras];
+		this.finRayos = new int[sentidos.length][numeroCasillas];
+		this.vecino = new int[sentidos.length][numeroCasillas];
+		this.vecinos = new int[numeroCasillas][];
+		this.llegadas = new long[sentidos.length][numeroPalabras];
+		this.tiposCelda = new TipoCelda[numeroCasillas];
+		this.coordenadas = new Coordenada[numeroCasillas];
+
+		for (Sentido sentido : sentidos) {
+			int s = sentido.ordinal();
+			pasos[s] = sentido.consultarDesplazamientoEnFilas() * tamaño + sentido.consultarDesplazamientoEnColumnas();
+			for (int casilla = 0; casilla < numeroCasillas; casilla++) {
+				int fila = consultarFila(casilla) + sentido.consultarDesplazamientoEnFilas();
+				int columna = consultarColumna(casilla) + sentido.consultarDesplazamientoEnColumnas();
+				finRayos[s][casilla] = -1;
+				while (estaEnTablero(fila, columna)) {
+					int destino = consultarCasilla(fila, columna);
+					rayos[s][casilla][destino / BITS_PALABRA] |= 1L << destino;
+					finRayos[s][casilla] = destino;
+					fila += sentido.consultarDesplazamientoEnFilas();
+					columna += sentido.consultarDesplazamientoEnColumnas();
+				}
+				vecino[s][casilla] = -1;
+				if (finRayos[s][casilla] >= 0) {
+					vecino[s][casilla] = casilla + pasos[s];
+					marcar(llegadas[s], casilla + pasos[s]);
+				}
+			}
+		}
+		int centro = tamaño / 2;
+		for (int casilla = 0; casilla < numeroCasillas; casilla++) {
+			int fila = consultarFila(casilla);
+			int columna = consultarColumna(casilla);
+			int[] contiguas = new int[ORDEN_VECINOS.length];
+			int numero = 0;
+			for (Sentido sentido : ORDEN_VECINOS) {
+				if (vecino[sentido.ordinal()][casilla] >= 0) {
+					contiguas[numero++] = vecino[sentido.ordinal()][casilla];
+				}
+			}
+			vecinos[casilla] = Arrays.copyOf(contiguas, numero);
+			tiposCelda[casilla] = TipoCelda.NORMAL;
+			if ((fila == 0 || fila == tamaño - 1) && (columna == 0 || columna == tamaño - 1)) {
+				tiposCelda[casilla] = TipoCelda.PROVINCIA;
+			} else if (fila == centro && columna == centro) {
+				tiposCelda[casilla] = TipoCelda.TRONO;
+			}
+			coordenadas[casilla] = COORDENADAS[fila][columna];
+		}
+	}
+
+	/**
+	 * Devuelve la geometría de un tablero del tamaño indicado, calculándola si es
+	 * la primera vez que se pide. El tamaño debe ser impar, para que haya una
+	 * casilla central para el trono, y estar entre TAMAÑO_MINIMO y TAMAÑO_MAXIMO.
+	 * En caso contrario lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param tamaño Número de filas y de columnas del tablero.
+	 * @return geometria Geometría del tablero.
+	 */
+	public static synchronized Geometria consultarGeometria(int tamaño) {
+		if (tamaño < TAMAÑO_MINIMO || tamaño > TAMAÑO_MAXIMO || tamaño % 2 == 0) {
+			throw new IllegalArgumentException("Tamaño de tablero incorrecto: " + tamaño);
+		}
+		if (GEOMETRIAS[tamaño] == null) {
+			GEOMETRIAS[tamaño] = new Geometria(tamaño);
+		}
+		return GEOMETRIAS[tamaño];
+	}
+
+	/**
+	 * Devuelve el número de filas y de columnas del tablero.
+	 * 
+	 * @return tamaño Tamaño del tablero.
+	 */
+	public int consultarTamaño() {
+		return tamaño;
+	}
+
+	/**
+	 * Devuelve el número total de casillas del tablero.
+	 * 
+	 * @return numeroCasillas Número de casillas.
+	 */
+	public int consultarNumeroCasillas() {
+		return numeroCasillas;
+	}
+
+	/**
+	 * Devuelve el número de palabras de 64 bits que ocupa una máscara con una
+	 * casilla por bit.
+	 * 
+	 * @return numeroPalabras Número de palabras.
+	 */
+	public int consultarNumeroPalabras() {
+		return numeroPalabras;
+	}
+
+	/**
+	 * Devuelve una cota superior del número de jugadas legales en una posición
+	 * de este tablero: cada casilla puede alcanzar como mucho las demás casillas
+	 * de su fila y su columna. Es el tamaño suficiente para el array de
+	 * Arbitro.generarJugadasLegales con este tablero.
+	 * 
+	 * @return maximoJugadas Número máximo de jugadas legales.
+	 */
+	public int consultarMaximoJugadas() {
+		return numeroCasillas * (2 * tamaño - 2);
+	}
+
+	/**
+	 * Devuelve la fila de la casilla indicada.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return fila Fila de la casilla.
+	 */
+	public int consultarFila(int casilla) {
+		return casilla / tamaño;
+	}
+
+	/**
+	 * Devuelve la columna de la casilla indicada.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return columna Columna de la casilla.
+	 */
+	public int consultarColumna(int casilla) {
+		return casilla % tamaño;
+	}
+
+	/**
+	 * Devuelve el índice de la casilla en la fila y columna indicadas. No se
+	 * comprueba que estén dentro del tablero.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return casilla Índice de la casilla.
+	 */
+	public int consultarCasilla(int fila, int columna) {
+		return fila * tamaño + columna;
+	}
+
+	/**
+	 * Comprueba si la fila y la columna indicadas están dentro del tablero.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return true si están dentro del tablero, false en caso contrario.
+	 */
+	public boolean estaEnTablero(int fila, int columna) {
+		return fila >= 0 && fila < tamaño && columna >= 0 && columna < tamaño;
+	}
+
+	/**
+	 * Devuelve la coordenada compartida de la casilla indicada. No se comprueba
+	 * que la casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return coordenada Coordenada de la casilla.
+	 */
+	public Coordenada consultarCoordenada(int casilla) {
+		return coordenadas[casilla];
+	}
+
+	/**
+	 * Devuelve la coordenada de la fila y columna indicadas, reutilizando la
+	 * coordenada compartida si están dentro del tablero más grande.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return coordenada Coordenada de la casilla.
+	 */
+	public static Coordenada consultarCoordenada(int fila, int columna) {
+		if (fila >= 0 && fila < TAMAÑO_MAXIMO && columna >= 0 && columna < TAMAÑO_MAXIMO) {
+			return COORDENADAS[fila][columna];
+		}
+		return new Coordenada(fila, columna);
+	}
+
+	/**
+	 * Devuelve el tipo de celda de la casilla indicada: el trono en el centro, las
+	 * provincias en las esquinas y el resto normales.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return tipoCelda Tipo de la celda.
+	 */
+	public TipoCelda consultarTipoCelda(int casilla) {
+		return tiposCelda[casilla];
+	}
+
+	/**
+	 * Devuelve el índice de la casilla del trono, en el centro del tablero.
+	 * 
+	 * @return casilla Índice de la casilla del trono.
+	 */
+	public int consultarCasillaTrono() {
+		return numeroCasillas / 2;
+	}
+
+	/**
+	 * Comprueba si la casilla indicada está en alguno de los cuatro bordes.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si está en un borde, false en caso contrario.
+	 */
+	public boolean esBorde(int casilla) {
+		return vecinos[casilla].length < ORDEN_VECINOS.length;
+	}
+
+	/**
+	 * Devuelve lo que cambia el índice de una casilla al avanzar una posición en
+	 * el sentido indicado.
+	 * 
+	 * @param sentido Sentido del avance.
+	 * @return paso Diferencia entre los índices de dos casillas contiguas.
+	 */
+	public int consultarPaso(Sentido sentido) {
+		return pasos[sentido.ordinal()];
+	}
+
+	/**
+	 * Devuelve el sentido en el que hay que avanzar para ir del origen al
+	 * destino, o nulo si no están en la misma fila o columna o son la misma
+	 * casilla.
+	 * 
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 * @return sentido Sentido del movimiento o nulo.
+	 */
+	public Sentido consultarSentido(int origen, int destino) {
+		Sentido sentido = null;
+		int filas = consultarFila(destino) - consultarFila(origen);
+		int columnas = consultarColumna(destino) - consultarColumna(origen);
+		if (columnas == 0 && filas < 0) {
+			sentido = Sentido.VERTICAL_N;
+		} else if (columnas == 0 && filas > 0) {
+			sentido = Sentido.VERTICAL_S;
+		} else if (filas == 0 && columnas > 0) {
+			sentido = Sentido.HORIZONTAL_E;
+		} else if (filas == 0 && columnas < 0) {
+			sentido = Sentido.HORIZONTAL_O;
+		}
+		return sentido;
+	}
+
+	/**
+	 * Comprueba si el destino está en el rayo que sale del origen en el sentido
+	 * indicado. Es un único test de bit, por lo que sirve para validar un sentido
+	 * ya conocido sin volver a calcularlo a partir de las filas y columnas.
+	 * 
+	 * @param sentido Sentido del rayo.
+	 * @param origen  Índice de la casilla de partida.
+	 * @param destino Índice de la casilla destino.
+	 * @return true si el destino está en el rayo, false en caso contrario.
+	 */
+	public boolean estaEnRayo(Sentido sentido, int origen, int destino) {
+		return estaMarcada(rayos[sentido.ordinal()][origen], destino);
+	}
+
+	/**
+	 * Devuelve la distancia entre dos casillas contando filas más columnas. Para
+	 * casillas de la misma fila o columna es el número de posiciones que hay que
+	 * avanzar para llegar de una a otra.
+	 * 
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 * @return distancia Distancia entre las casillas.
+	 */
+	public int consultarDistancia(int origen, int destino) {
+		return Math.abs(consultarFila(destino) - consultarFila(origen))
+				+ Math.abs(consultarColumna(destino) - consultarColumna(origen));
+	}
+
+	/**
+	 * Devuelve la casilla contigua a la indicada en el sentido dado, o -1 si se
+	 * sale del tablero.
+	 * 
+	 * @param sentido Sentido en el que se busca el vecino.
+	 * @param casilla Índice de la casilla.
+	 * @return vecino Índice de la casilla contigua o -1.
+	 */
+	public int consultarVecino(Sentido sentido, int casilla) {
+		return vecino[sentido.ordinal()][casilla];
+	}
+
+	/**
+	 * Devuelve el número de casillas contiguas a la indicada. Junto con
+	 * consultarVecino(casilla, posicion) permite recorrer los vecinos sin crear
+	 * listas.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return numero Número de casillas contiguas (2, 3 o 4).
+	 */
+	public int consultarNumeroVecinos(int casilla) {
+		return vecinos[casilla].length;
+	}
+
+	/**
+	 * Devuelve la casilla contigua que ocupa la posición indicada en la lista de
+	 * vecinos de la casilla, en el orden sur, norte, este y oeste.
+	 * 
+	 * @param casilla  Índice de la casilla.
+	 * @param posicion Posición en la lista de vecinos, entre 0 y
+	 *                 consultarNumeroVecinos(casilla) - 1.
+	 * @return vecino Índice de la casilla contigua.
+	 */
+	public int consultarVecino(int casilla, int posicion) {
+		return vecinos[casilla][posicion];
+	}
+
+	/**
+	 * Devuelve la primera casilla marcada en la máscara que se encuentra al
+	 * avanzar desde la casilla indicada en el sentido dado, o -1 si no hay
+	 * ninguna hasta el borde. Solo se recorren las palabras que cruza el rayo: se
+	 * hace un AND del rayo con la máscara y se toma el bit más bajo si el sentido
+	 * es creciente o el más alto si es decreciente.
+	 * 
+	 * @param sentido Sentido del avance.
+	 * @param casilla Índice de la casilla de partida.
+	 * @param mascara Máscara de casillas, con consultarNumeroPalabras() palabras.
+	 * @return casilla Índice de la primera casilla marcada o -1.
+	 */
+	public int consultarPrimeraEnRayo(Sentido sentido, int casilla, long[] mascara) {
+		int s = sentido.ordinal();
+		int fin = finRayos[s][casilla];
+		if (fin < 0) {
+			return -1;
+		}
+		long[] rayo = rayos[s][casilla];
+		int inicio = (casilla + pasos[s]) / BITS_PALABRA;
+		int ultima = fin / BITS_PALABRA;
+		if (pasos[s] > 0) {
+			for (int palabra = inicio; palabra <= ultima; palabra++) {
+				long bits = rayo[palabra] & mascara[palabra];
+				if (bits != 0) {
+					return palabra * BITS_PALABRA + Long.numberOfTrailingZeros(bits);
+				}
+			}
+		} else {
+			for (int palabra = inicio; palabra >= ultima; palabra--) {
+				long bits = rayo[palabra] & mascara[palabra];
+				if (bits != 0) {
+					return palabra * BITS_PALABRA + BITS_PALABRA - 1 - Long.numberOfLeadingZeros(bits);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Devuelve la palabra indicada de la máscara que resulta de desplazar todas
+	 * las casillas marcadas una posición en el sentido dado. Es un desplazamiento
+	 * de bits más un AND: los bits que pasan de una palabra a la contigua se
+	 * recogen de ella y los que saltarían de una fila a otra o fuera del tablero
+	 * se descartan. Permite calcular solo la palabra que interesa sin desplazar
+	 * la máscara entera.
+	 * 
+	 * @param mascara Máscara de casillas, con consultarNumeroPalabras() palabras.
+	 * @param sentido Sentido del desplazamiento.
+	 * @param palabra Índice de la palabra del resultado.
+	 * @return palabra Palabra de la máscara desplazada.
+	 */
+	public long consultarPalabraDesplazada(long[] mascara, Sentido sentido, int palabra) {
+		int s = sentido.ordinal();
+		int paso = pasos[s];
+		long desplazada;
+		if (paso > 0) {
+			desplazada = mascara[palabra] << paso;
+			if (palabra > 0) {
+				desplazada |= mascara[palabra - 1] >>> (BITS_PALABRA - paso);
+			}
+		} else {
+			desplazada = mascara[palabra] >>> -paso;
+			if (palabra + 1 < numeroPalabras) {
+				desplazada |= mascara[palabra + 1] << (BITS_PALABRA + paso);
+			}
+		}
+		return desplazada & llegadas[s][palabra];
+	}
+
+	/**
+	 * Escribe en el resultado la máscara que resulta de desplazar todas las
+	 * casillas marcadas una posición en el sentido dado, descartando las que se
+	 * salen del tablero. El resultado no puede ser la misma máscara de entrada.
+	 * 
+	 * @param mascara   Máscara de casillas, con consultarNumeroPalabras()
+	 *                  palabras.
+	 * @param sentido   Sentido del desplazamiento.
+	 * @param resultado Máscara donde se escribe el desplazamiento.
+	 */
+	public void desplazar(long[] mascara, Sentido sentido, long[] resultado) {
+		for (int palabra = 0; palabra < numeroPalabras; palabra++) {
+			resultado[palabra] = consultarPalabraDesplazada(mascara, sentido, palabra);
+		}
+	}
+
+	/**
+	 * Devuelve la primera casilla marcada en la máscara a partir de la casilla
+	 * indicada (incluida), o -1 si no hay más. Sirve para recorrer las casillas de
+	 * una máscara en orden creciente saltando palabra a palabra, por lo que el
+	 * coste depende del número de casillas marcadas y no del tamaño del tablero.
+	 * 
+	 * @param mascara Máscara de casillas.
+	 * @param desde   Índice de la casilla desde la que se busca.
+	 * @return casilla Índice de la siguiente casilla marcada o -1.
+	 */
+	public static int consultarSiguiente(long[] mascara, int desde) {
+		int palabra = desde / BITS_PALABRA;
+		if (palabra >= mascara.length) {
+			return -1;
+		}
+		long bits = mascara[palabra] & -1L << desde;
+		while (bits == 0) {
+			palabra++;
+			if (palabra == mascara.length) {
+				return -1;
+			}
+			bits = mascara[palabra];
+		}
+		return palabra * BITS_PALABRA + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * Comprueba si la casilla indicada está marcada en la máscara.
+	 * 
+	 * @param mascara Máscara de casillas.
+	 * @param casilla Índice de la casilla.
+	 * @return true si está marcada, false en caso contrario.
+	 */
+	public static boolean estaMarcada(long[] mascara, int casilla) {
+		return (mascara[casilla / BITS_PALABRA] & 1L << casilla) != 0;
+	}
+
+	/**
+	 * Marca la casilla indicada en la máscara.
+	 * 
+	 * @param mascara Máscara de casillas.
+	 * @param casilla Índice de la casilla.
+	 */
+	public static void marcar(long[] mascara, int casilla) {
+		mascara[casilla / BITS_PALABRA] |= 1L << casilla;
+	}
+
+	/**
+	 * Desmarca la casilla indicada en la máscara.
+	 * 
+	 * @param mascara Máscara de casillas.
+	 * @param casilla Índice de la casilla.
+	 */
+	public static void desmarcar(long[] mascara, int casilla) {
+		mascara[casilla / BITS_PALABRA] &= ~(1L << casilla);
+	}
+}
@@ -0,0 +1,182 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import tafl.util.TipoPieza;
+
+/**
+ * Clase InstantaneaTablero. Copia inmutable del contenido de un tablero en un
+ * momento dado, que se puede leer desde otros hilos mientras la partida
+ * avanza, sin bloqueos. Se obtiene con Tablero.consultarInstantanea.
+ * 
+ * Cada instantánea comparte con la anterior del mismo tablero las máscaras de
+ * los tipos de pieza que no han cambiado entre las dos: tras una jugada solo
+ * se copian las máscaras del tipo de la pieza movida y del de las capturadas,
+ * de unas pocas palabras cada una. Las máscaras nunca se modifican después de
+ * construir la instantánea y se publican a través de atributos final, por lo
+ * que cualquier hilo que reciba la referencia ve el contenido completo.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class InstantaneaTablero {
+	/**
+	 * Tipos de pieza. Se guarda el array para no copiarlo en cada llamada a
+	 * TipoPieza.values().
+	 */
+	private static final TipoPieza[] TIPOS = TipoPieza.values();
+	/**
+	 * Geometría del tablero.
+	 */
+	private final Geometria geometria;
+	/**
+	 * Máscaras de bits con las casillas ocupadas por cada tipo de pieza, indexadas
+	 * por el ordinal de TipoPieza. Pueden ser compartidas con otras
+	 * instantáneas y no se deben modificar.
+	 */
+	private final long[][] piezas;
+	/**
+	 * Clave Zobrist de las piezas.
+	 */
+	private final long clave;
+	/**
+	 * Número de piezas de cada tipo, indexado por el ordinal de TipoPieza.
+	 */
+	private final int[] numeroPiezas;
+
+	/**
+	 * Crea la instantánea con las máscaras indicadas, que pasan a ser suyas o
+	 * compartidas con otra instantánea. Solo la construye Tablero.
+	 * 
+	 * @param geometria    Geometría del tablero.
+	 * @param piezas       Máscaras de cada tipo de pieza.
+	 * @param clave        Clave Zobrist de las piezas.
+	 * @param numeroPiezas Número de piezas de cada tipo.
+	 */
+	InstantaneaTablero(Geometria geometria, long[][] piezas, long clave, int[] numeroPiezas) {
+		this.geometria = geometria;
+		this.piezas = piezas;
+		this.clave = clave;
+		this.numeroPiezas = numeroPiezas;
+	}
+
+	/**
+	 * Devuelve la máscara compartida de un tipo de pieza, para construir la
+	 * siguiente instantánea sin copiarla.
+	 * 
+	 * @param tipo Ordinal del tipo de pieza.
+	 * @return mascara Máscara del tipo de pieza, que no se debe modificar.
+	 */
+	long[] consultarMascaraCompartida(int tipo) {
+		return piezas[tipo];
+	}
+
+	/**
+	 * Devuelve la geometría del tablero.
+	 * 
+	 * @return geometria Geometría del tablero.
+	 */
+	public Geometria consultarGeometria() {
+		return geometria;
+	}
+
+	/**
+	 * Devuelve la clave Zobrist de las piezas de la instantánea.
+	 * 
+	 * @return clave Clave Zobrist.
+	 */
+	public long consultarClaveZobrist() {
+		return clave;
+	}
+
+	/**
+	 * Devuelve el número de piezas del tipo indicado. Si el tipo de pieza vale
+	 * nulo, lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @return numero Número de piezas del tipo.
+	 */
+	public int consultarNumeroPiezas(TipoPieza tipoPieza) {
+		if (tipoPieza == null) {
+			throw new IllegalArgumentException("Tipo de pieza nulo");
+		}
+		return numeroPiezas[tipoPieza.ordinal()];
+	}
+
+	/**
+	 * Devuelve el tipo de la pieza de la casilla indicada, o nulo si está vacía.
+	 * No se comprueba que la casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla (fila * número de columnas + columna).
+	 * @return tipoPieza Tipo de la pieza o nulo.
+	 */
+	public TipoPieza consultarTipoPieza(int casilla) {
+		for (TipoPieza tipoPieza : TIPOS) {
+			if (Geometria.estaMarcada(piezas[tipoPieza.ordinal()], casilla)) {
+				return tipoPieza;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Comprueba si la casilla indicada tiene alguna pieza. No se comprueba que la
+	 * casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si está ocupada, false en caso contrario.
+	 */
+	public boolean estaOcupada(int casilla) {
+		return consultarTipoPieza(casilla) != null;
+	}
+
+	/**
+	 * Devuelve el índice de la casilla en la que está el rey, o -1 si no está.
+	 * 
+	 * @return casilla Índice de la casilla del rey o -1.
+	 */
+	public int consultarCasillaRey() {
+		return Geometria.consultarSiguiente(piezas[TipoPieza.REY.ordinal()], 0);
+	}
+
+	/**
+	 * Copia en el array indicado la máscara de bits con las casillas ocupadas por
+	 * el tipo de pieza dado. El array debe tener al menos
+	 * consultarGeometria().consultarNumeroPalabras() posiciones.
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @param resultado Array donde se copia la máscara.
+	 */
+	public void consultarMascara(TipoPieza tipoPieza, long[] resultado) {
+		long[] mascara = piezas[tipoPieza.ordinal()];
+		System.arraycopy(mascara, 0, resultado, 0, mascara.length);
+	}
+
+	/**
+	 * Construye un tablero nuevo, modificable, con el contenido de la
+	 * instantánea. Sirve para analizar la posición o para restaurarla.
+	 * 
+	 * @return tablero Tablero con las piezas de la instantánea.
+	 */
+	public Tablero aTablero() {
+		Tablero tablero = new Tablero(geometria.consultarTamaño());
+		for (TipoPieza tipoPieza : TIPOS) {
+			long[] mascara = piezas[tipoPieza.ordinal()];
+			for (int casilla = Geometria.consultarSiguiente(mascara, 0); casilla >= 0; casilla = Geometria
+					.consultarSiguiente(mascara, casilla + 1)) {
+				tablero.colocarPieza(tipoPieza, casilla);
+			}
+		}
+		return tablero;
+	}
+
+	/**
+	 * Devuelve el contenido de la instantánea en el mismo formato de texto que
+	 * Tablero.aTexto.
+	 * 
+	 * @return string String con el estado del tablero.
+	 */
+	public String aTexto() {
+		return aTablero().aTexto();
+	}
+}
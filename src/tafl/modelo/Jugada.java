@@ -58,12 +58,9 @@ public record Jugada(Celda origen, Celda destino) {
 	 *         horizontal o vertical.
 	 */
 	public boolean esMovimientoHorizontalOVertical() {
-		boolean esMovimientoHorizontalOVertical = false;
-		if (consultarSentido() == Sentido.HORIZONTAL_E || consultarSentido() == Sentido.HORIZONTAL_O
-				|| consultarSentido() == Sentido.VERTICAL_N || consultarSentido() == Sentido.VERTICAL_S) {
-			esMovimientoHorizontalOVertical = true;
-		}
-		return esMovimientoHorizontalOVertical;
+		// consultarSentido ya devuelve nulo para los sentidos no permitidos, así que
+		// basta con calcularlo una vez.
+		return consultarSentido() != null;
 	}
 
 	/**
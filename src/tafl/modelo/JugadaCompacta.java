@@ -0,0 +1,123 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import tafl.util.Coordenada;
+import tafl.util.Sentido;
+
+/**
+ * Clase JugadaCompacta. Codifica una jugada en un único entero con los índices
+ * de sus casillas origen y destino (fila * número de columnas + columna) y el
+ * sentido del movimiento, para que las listas de jugadas y el historial se
+ * puedan guardar en arrays de enteros sin crear objetos Jugada ni Celda. El
+ * sentido se guarda calculado para que el árbitro no tenga que deducirlo otra
+ * vez de las coordenadas al validar o realizar la jugada.
+ * 
+ * Formato: bits 0 a 8 el destino, bits 9 a 17 el origen y bits 18 a 20 el
+ * ordinal del sentido más uno (0 si origen y destino no están alineados).
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class JugadaCompacta {
+	/**
+	 * Número de bits reservados para cada índice de casilla.
+	 */
+	private static final int BITS_CASILLA = 9;
+	/**
+	 * Máscara para extraer un índice de casilla.
+	 */
+	private static final int MASCARA_CASILLA = (1 << BITS_CASILLA) - 1;
+	/**
+	 * Posición del primer bit del sentido.
+	 */
+	private static final int DESPLAZAMIENTO_SENTIDO = 2 * BITS_CASILLA;
+	/**
+	 * Máscara para extraer el sentido, ya desplazado.
+	 */
+	private static final int MASCARA_SENTIDO = 7;
+	/**
+	 * Sentidos indexados por su ordinal, para no copiar Sentido.values() al
+	 * decodificar.
+	 */
+	private static final Sentido[] SENTIDOS = Sentido.values();
+
+	/**
+	 * Oculta el constructor por defecto.
+	 */
+	private JugadaCompacta() {
+	}
+
+	/**
+	 * Codifica la jugada de la casilla origen a la casilla destino en el sentido
+	 * indicado. El sentido debe ser el que lleva del origen al destino, o nulo si
+	 * no están alineados.
+	 * 
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 * @param sentido Sentido del movimiento o nulo.
+	 * @return jugada Jugada codificada.
+	 */
+	public static int codificar(int origen, int destino, Sentido sentido) {
+		int codigoSentido = 0;
+		if (sentido != null) {
+			codigoSentido = sentido.ordinal() + 1;
+		}
+		return codigoSentido << DESPLAZAMIENTO_SENTIDO | origen << BITS_CASILLA | destino;
+	}
+
+	/**
+	 * Codifica una jugada expresada con celdas sobre la geometría indicada. Es el
+	 * adaptador entre la API de objetos Jugada y la representación compacta. Si
+	 * la jugada o la geometría valen nulo, lanza una excepción no comprobable
+	 * IllegalArgumentException. Las coordenadas deben estar en el tablero.
+	 * 
+	 * @param jugada    Jugada a codificar.
+	 * @param geometria Geometría del tablero.
+	 * @return jugada Jugada codificada.
+	 */
+	public static int codificar(Jugada jugada, Geometria geometria) {
+		if (jugada == null || geometria == null) {
+			throw new IllegalArgumentException("Argumento nulo");
+		}
+		Coordenada origen = jugada.consultarOrigen().consultarCoordenada();
+		Coordenada destino = jugada.consultarDestino().consultarCoordenada();
+		return codificar(geometria.consultarCasilla(origen.fila(), origen.columna()),
+				geometria.consultarCasilla(destino.fila(), destino.columna()), jugada.consultarSentido());
+	}
+
+	/**
+	 * Devuelve el índice de la casilla origen de una jugada codificada.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return origen Índice de la casilla origen.
+	 */
+	public static int consultarOrigen(int jugada) {
+		return (jugada >>> BITS_CASILLA) & MASCARA_CASILLA;
+	}
+
+	/**
+	 * Devuelve el índice de la casilla destino de una jugada codificada.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return destino Índice de la casilla destino.
+	 */
+	public static int consultarDestino(int jugada) {
+		return jugada & MASCARA_CASILLA;
+	}
+
+	/**
+	 * Devuelve el sentido guardado en una jugada codificada, o nulo si el origen
+	 * y el destino no están alineados.
+	 * 
+	 * @param jugada Jugada codificada.
+	 * @return sentido Sentido del movimiento o nulo.
+	 */
+	public static Sentido consultarSentido(int jugada) {
+		int codigoSentido = (jugada >>> DESPLAZAMIENTO_SENTIDO) & MASCARA_SENTIDO;
+		if (codigoSentido == 0 || codigoSentido > SENTIDOS.length) {
+			return null;
+		}
+		return SENTIDOS[codigoSentido - 1];
+	}
+}
@@ -9,19 +9,36 @@ import tafl.util.Color;
  * Clase Pieza Representa una pieza del juego. Una pieza tiene un tipo y un
  * color. El tipo de la pieza puede ser: Rey, Defensor o Atacante.
  * 
+ * Las piezas son inmutables, así que todas las piezas de un mismo tipo son
+ * intercambiables. Con obtenerPieza se consigue la instancia compartida de
+ * cada tipo, sin crear objetos nuevos.
+ * 
  * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
  * @version 1.0
  * @serial 2023/10/25
  */
 public class Pieza {
+	/**
+	 * Instancias compartidas de cada tipo de pieza, indexadas por ordinal.
+	 */
+	private static final Pieza[] PIEZAS;
+
+	static {
+		TipoPieza[] tipos = TipoPieza.values();
+		PIEZAS = new Pieza[tipos.length];
+		for (TipoPieza tipoPieza : tipos) {
+			PIEZAS[tipoPieza.ordinal()] = new Pieza(tipoPieza);
+		}
+	}
+
 	/**
 	 * Tipo de la pieza. (Rey, Defensor o Atacante)
 	 */
-	private TipoPieza tipo;
+	private final TipoPieza tipo;
 	/**
 	 * Color de la pieza. (Blanco o Negro)
 	 */
-	private Color color;
+	private final Color color;
 
 	/**
 	 * Constructor de la clase. Inicializa la pieza con el tipo de pieza pasado.
@@ -34,27 +51,34 @@ public class Pieza {
 	}
 
 	/**
-	 * Clona la pieza. Se crea una nueva pieza con el mismo tipo y color.
+	 * Devuelve la instancia compartida de la pieza del tipo indicado. Si el tipo
+	 * vale nulo, lanza una excepción no comprobable IllegalArgumentException.
+	 * 
+	 * @param tipoPieza Tipo de la pieza.
+	 * @return pieza Pieza compartida del tipo indicado.
+	 */
+	public static Pieza obtenerPieza(TipoPieza tipoPieza) {
+		if (tipoPieza == null) {
+			throw new IllegalArgumentException("Tipo de pieza nulo");
+		}
+		return PIEZAS[tipoPieza.ordinal()];
+	}
+
+	/**
+	 * Clona la pieza. Como las piezas son inmutables, el clon es la propia pieza.
 	 * 
 	 * @return pieza Características de la pieza.
 	 */
 	public Pieza clonar() {
-		Pieza pieza = new Pieza(this.tipo);
-		return pieza;
+		return this;
 	}
 
 	/**
-	 * Devuelve el color asociado a la pieza.
+	 * Devuelve el color asociado a la pieza, que viene dado por su tipo.
 	 * 
 	 * @return color Color de la Pieza.
 	 */
 	public Color consultarColor() {
-		Color color = null;
-		if (tipo == TipoPieza.REY || tipo == TipoPieza.DEFENSOR) {
-			color = Color.BLANCO;
-		} else if (tipo == TipoPieza.ATACANTE) {
-			color = Color.NEGRO;
-		}
 		return color;
 	}
 
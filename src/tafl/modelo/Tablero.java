@@ -16,44 +16,88 @@ import tafl.util.*;
  * derecha. Se numera de izquierda a derecha y en sentido descendente de arriba
  * a abajo.
  * 
+ * Por defecto el tablero es de 7x7, pero se puede crear de cualquier tamaño
+ * impar entre Geometria.TAMAÑO_MINIMO y Geometria.TAMAÑO_MAXIMO. Las piezas se
+ * guardan en máscaras de bits de varias palabras, una casilla por bit.
+ * 
  * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
  * @version 1.0
  * @serial 2023/10/25
  */
 public class Tablero {
 	/**
-	 * Varaible tipo Celda. determinará cada casilla del tablero.
-	 */
-	private Celda[][] matriz;
-	/**
-	 * Número de filas del tablero. No se puede modificar.
+	 * Número de filas del tablero por defecto. No se puede modificar.
 	 */
 	public final static int NUMERO_FILAS = 7;
 	/**
-	 * Número de columnas del tablero. No se puede modificar.
+	 * Número de columnas del tablero por defecto. No se puede modificar.
 	 */
 	public final static int NUMERO_COLUMNAS = 7;
 
 	/**
-	 * Constructor de la clase Tablero. Inicializa la matriz de celdas.
+	 * Geometría compartida por todos los tableros del mismo tamaño.
+	 */
+	private final Geometria geometria;
+	/**
+	 * Máscaras de bits con las casillas ocupadas por cada tipo de pieza, indexadas
+	 * por el ordinal de TipoPieza.
+	 */
+	private long[][] piezas;
+	/**
+	 * Máscaras de bits con las casillas ocupadas por piezas de cada color,
+	 * indexadas por el ordinal de Color.
+	 */
+	private long[][] colores;
+	/**
+	 * Máscara de bits con todas las casillas ocupadas.
+	 */
+	private long[] ocupadas;
+	/**
+	 * Clave Zobrist de las piezas colocadas. Se actualiza en cada colocación o
+	 * eliminación de pieza.
+	 */
+	private long clave;
+	/**
+	 * Número de piezas de cada tipo en el tablero, indexado por el ordinal de
+	 * TipoPieza. Se actualiza en cada colocación o eliminación de pieza.
+	 */
+	private int[] numeroPiezas;
+	/**
+	 * Última instantánea obtenida con consultarInstantanea, o nulo si no se ha
+	 * pedido ninguna.
+	 */
+	private InstantaneaTablero instantanea;
+	/**
+	 * Tipos de pieza cuya máscara ha cambiado desde la última instantánea, con un
+	 * bit por cada tipo (por ordinal).
+	 */
+	private int tiposModificados;
+
+	/**
+	 * Constructor de la clase Tablero. Inicializa el tablero vacío de 7x7.
 	 */
 	public Tablero() {
-		matriz = new Celda[NUMERO_FILAS][NUMERO_COLUMNAS];
-		for (int i = 0; i < matriz.length; i++) {
-			for (int j = 0; j < matriz[i].length; j++) {
-				Coordenada coordenada = new Coordenada(i, j);
-				if (i == 0 && j == 0 || i == 0 && j == 6 || i == 6 && j == 0 || i == 6 && j == 6) {
-					Celda celda = new Celda(coordenada, TipoCelda.PROVINCIA);
-					matriz[i][j] = celda;
-				} else if (i == 3 && j == 3) {
-					Celda celda = new Celda(coordenada, TipoCelda.TRONO);
-					matriz[i][j] = celda;
-				} else {
-					Celda celda = new Celda(coordenada, TipoCelda.NORMAL);
-					matriz[i][j] = celda;
-				}
-			}
-		}
+		this(NUMERO_FILAS);
+	}
+
+	/**
+	 * Inicializa un tablero vacío con el número de filas y columnas indicado. Si
+	 * el tamaño no es impar o no está entre Geometria.TAMAÑO_MINIMO y
+	 * Geometria.TAMAÑO_MAXIMO, lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param tamaño Número de filas y de columnas.
+	 */
+	public Tablero(int tamaño) {
+		geometria = Geometria.consultarGeometria(tamaño);
+		int palabras = geometria.consultarNumeroPalabras();
+		piezas = new long[TipoPieza.values().length][palabras];
+		colores = new long[Color.values().length][palabras];
+		ocupadas = new long[palabras];
+		clave = 0L;
+		numeroPiezas = new int[TipoPieza.values().length];
+		instantanea = null;
+		tiposModificados = 0;
 	}
 
 	/**
@@ -72,16 +116,20 @@ public class Tablero {
 		 * 
 		 * Siendo A = Atacante, D = Defensor, R = Rey, - = Vacío
 		 */
+		int tamaño = geometria.consultarTamaño();
+		// En tableros de más de 9 filas los números ocupan dos caracteres
+		String formatoFila = "%" + String.valueOf(tamaño).length() + "d ";
 		String string = "";
-		for (int i = 0; i < matriz.length; i++) {
-			string += (NUMERO_FILAS - i) + " ";
-			for (int j = 0; j < matriz.length; j++) {
-				if (matriz[i][j].consultarPieza() != null) {
-					if (matriz[i][j].consultarPieza().consultarTipoPieza() == TipoPieza.ATACANTE) {
+		for (int i = 0; i < tamaño; i++) {
+			string += String.format(formatoFila, tamaño - i);
+			for (int j = 0; j < tamaño; j++) {
+				TipoPieza tipoPieza = consultarTipoPieza(geometria.consultarCasilla(i, j));
+				if (tipoPieza != null) {
+					if (tipoPieza == TipoPieza.ATACANTE) {
 						string += "A ";
-					} else if (matriz[i][j].consultarPieza().consultarTipoPieza() == TipoPieza.DEFENSOR) {
+					} else if (tipoPieza == TipoPieza.DEFENSOR) {
 						string += "D ";
-					} else if (matriz[i][j].consultarPieza().consultarTipoPieza() == TipoPieza.REY) {
+					} else if (tipoPieza == TipoPieza.REY) {
 						string += "R ";
 					}
 				} else {
@@ -90,25 +138,59 @@ public class Tablero {
 			}
 			string += "\n";
 		}
-		string += "  a b c d e f g";
+		string += " ".repeat(String.valueOf(tamaño).length());
+		for (int j = 0; j < tamaño; j++) {
+			string += " " + (char) ('a' + j);
+		}
 		return string;
 	}
 
 	/**
-	 * Devuelve un clon en profundidad del tablero actual.
+	 * Devuelve un clon en profundidad del tablero actual. Basta con copiar las
+	 * máscaras de bits de cada tipo de pieza.
 	 * 
 	 * @return tablero Clon del tablero.
 	 */
 	public Tablero clonar() {
-		Tablero tablero = new Tablero();
-		for (int i = 0; i < matriz.length; i++) {
-			for (int j = 0; j < matriz.length; j++) {
-				tablero.matriz[i][j] = matriz[i][j].clonar();
-			}
+		Tablero tablero = new Tablero(geometria.consultarTamaño());
+		for (int i = 0; i < piezas.length; i++) {
+			System.arraycopy(piezas[i], 0, tablero.piezas[i], 0, ocupadas.length);
 		}
+		for (int i = 0; i < colores.length; i++) {
+			System.arraycopy(colores[i], 0, tablero.colores[i], 0, ocupadas.length);
+		}
+		System.arraycopy(ocupadas, 0, tablero.ocupadas, 0, ocupadas.length);
+		tablero.clave = clave;
+		System.arraycopy(numeroPiezas, 0, tablero.numeroPiezas, 0, numeroPiezas.length);
 		return tablero;
 	}
 
+	/**
+	 * Devuelve una instantánea inmutable del contenido actual del tablero, que
+	 * se puede leer desde otros hilos mientras el tablero sigue cambiando. La
+	 * nueva instantánea comparte con la anterior las máscaras de los tipos de
+	 * pieza que no han cambiado desde entonces y solo copia las demás, por lo que
+	 * tras una jugada cuesta lo que copiar una o dos máscaras. Si el tablero no ha
+	 * cambiado desde la última, devuelve la misma instantánea.
+	 * 
+	 * @return instantanea Instantánea del tablero.
+	 */
+	public InstantaneaTablero consultarInstantanea() {
+		if (instantanea == null || tiposModificados != 0) {
+			long[][] mascaras = new long[piezas.length][];
+			for (int tipo = 0; tipo < piezas.length; tipo++) {
+				if (instantanea != null && (tiposModificados & 1 << tipo) == 0) {
+					mascaras[tipo] = instantanea.consultarMascaraCompartida(tipo);
+				} else {
+					mascaras[tipo] = piezas[tipo].clone();
+				}
+			}
+			instantanea = new InstantaneaTablero(geometria, mascaras, clave, numeroPiezas.clone());
+			tiposModificados = 0;
+		}
+		return instantanea;
+	}
+
 	/**
 	 * El método colocar coloca en la coordenada indicada la pieza pasada como
 	 * argumento. Si la pieza o la coordenada valieran nulo, lanza una excepción no
@@ -126,25 +208,22 @@ public class Tablero {
 			throw new IllegalArgumentException("Pieza o coordenada nulas");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		// Comprombar que la coordenada está fuera del tablero, lanza una excepción
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
-		matriz[fila][columna].colocar(pieza);
+		// Obtener la casilla de la coordenada, que lanza una excepción si está fuera del tablero.
+		int casilla = consultarCasillaEnTablero(coordenada);
+		vaciarCasilla(casilla);
+		colocarPieza(pieza.consultarTipoPieza(), casilla);
 	}
 
 	/**
-	 * Devuelve un clon en profundidad de la celda con las coordenadas indicadas. Si
-	 * la coordenada vale nulo, lanza una excepción no comprobable
+	 * Devuelve un clon en profundidad de la celda con las coordenadas indicadas,
+	 * independiente del tablero. Para leer el tablero sin crear objetos se pueden
+	 * usar consultarTipoPieza, consultarColorDePieza y consultarTipoCelda. Si la
+	 * coordenada vale nulo, lanza una excepción no comprobable
 	 * IllegalArgumentException. Si la coordenada no está en el tablero lanza una
 	 * excepción CoordenadasIncorrectasException.
 	 * 
 	 * @param coordenada Coordenada de la celda a clonar.
-	 * @return matriz[fila][columna].clonar() Clon de la celda.
+	 * @return construirCelda(casilla) Clon de la celda.
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
 	 */
 	public Celda consultarCelda(Coordenada coordenada) throws CoordenadasIncorrectasException {
@@ -152,14 +231,7 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
-		return matriz[fila][columna].clonar();
+		return construirCelda(consultarCasillaEnTablero(coordenada));
 	}
 
 	/**
@@ -170,20 +242,20 @@ public class Tablero {
 	 * @return celdas Array de celdas.
 	 */
 	public List<Celda> consultarCeldas() {
-		List<Celda> celdas = new ArrayList<>(NUMERO_COLUMNAS*NUMERO_FILAS);
-		for (int i = 0; i < matriz.length; i++) {
-			for (int j = 0; j < matriz[i].length; j++) {
-				celdas.add(matriz[i][j].clonar());
-			}
+		List<Celda> celdas = new ArrayList<>(geometria.consultarNumeroCasillas());
+		for (int casilla = 0; casilla < geometria.consultarNumeroCasillas(); casilla++) {
+			celdas.add(construirCelda(casilla));
 		}
 		return celdas;
 	}
 
 	/**
 	 * Devuelve una lista de celdas con clones en profundidad de todas las celdas
-	 * contiguas a la coordenada dada. Si la coordenada vale nulo, lanza una
-	 * excepción no comprobable IllegalArgumentException. Si la coordenada no está
-	 * en el tablero lanza una excepción CoordenadasIncorrectasException.
+	 * contiguas a la coordenada dada, en el orden sur, norte, este y oeste. Para
+	 * recorrer los vecinos sin crear objetos se puede usar la geometría del
+	 * tablero. Si la coordenada vale nulo, lanza una excepción no comprobable
+	 * IllegalArgumentException. Si la coordenada no está en el tablero lanza una
+	 * excepción CoordenadasIncorrectasException.
 	 * 
 	 * @param coordenada Coordenada de la celda.
 	 * @return celdas Array de celdas.
@@ -194,112 +266,17 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
-		List<Celda> celdas = new ArrayList<>();
-		// Si es una esquina, solo puede tener 2 celdas contiguas
-		if ((fila == 0 || fila == NUMERO_FILAS - 1) && (columna == 0 || columna == NUMERO_COLUMNAS - 1)) {
-			celdas = consultarCeldasContiguasEsquina(coordenada);
-		}
-		// Si es un borde, devuelve 3 celdas contiguas
-		else if (((fila > 0 || fila < NUMERO_FILAS - 1) && (columna == 0 || columna == NUMERO_COLUMNAS - 1))
-				|| (fila == 0 || fila == NUMERO_FILAS - 1) && (columna > 0 || columna < NUMERO_COLUMNAS - 1)) {
-			celdas = consultarCeldasContiguasBorde(coordenada);
-		}
-		// si está en los centros del tablero, devuelve 4 celdas contiguas
-		else {
-			celdas = consultarCeldasContiguasCentro(coordenada);
+		// Las esquinas tienen 2 celdas contiguas, los bordes 3 y el resto 4. La tabla
+		// de vecinos ya lo tiene en cuenta.
+		int casilla = consultarCasillaEnTablero(coordenada);
+		int numeroVecinos = geometria.consultarNumeroVecinos(casilla);
+		List<Celda> celdas = new ArrayList<>(numeroVecinos);
+		for (int i = 0; i < numeroVecinos; i++) {
+			celdas.add(construirCelda(geometria.consultarVecino(casilla, i)));
 		}
 		return celdas;
 	}
 
-	/**
-	 * Devuelve un array de una dimensión con clones en profundidad de todas las
-	 * celdas contiguas a la coordenada dada.
-	 * 
-	 * @param coordenada Coordenada de la celda.
-	 * @return celdas Array de celdas.
-	 * @see consultarCeldasContiguas Enlace al método consultarCeldasContiguas.
-	 */
-	private List<Celda> consultarCeldasContiguasEsquina(Coordenada coordenada) {
-		if (coordenada != null) {
-			int fila = coordenada.fila();
-			int columna = coordenada.columna();
-			// Si es un borde, solo puede tener 2 celdas contiguas
-			if ((fila == 0 || fila == NUMERO_FILAS - 1) && (columna == 0 || columna == NUMERO_COLUMNAS - 1)) {
-				List<Celda> celdas = new ArrayList<>();
-				if (fila == 0) {
-					celdas.add(matriz[fila + 1][columna].clonar());
-				} else if (fila == NUMERO_FILAS - 1) {
-					celdas.add(matriz[fila - 1][columna].clonar());
-				}
-				if (columna == 0) {
-					celdas.add(matriz[fila][columna + 1].clonar());
-				} else if (columna == NUMERO_COLUMNAS - 1) {
-					celdas.add(matriz[fila][columna - 1].clonar());
-				}
-				return celdas;
-			}
-		}
-		return new ArrayList<>();
-	}
-
-	/**
-	 * Devuelve un array de una dimensión con las celdas contiguas a la coordenada
-	 * dada si esta está en un borde del tablero.
-	 * 
-	 * @param coordenada Coordenada de la celda.
-	 * @return celdas Array de celdas.
-	 * @see consultarCeldasContiguas Enlace al método consultarCeldasContiguas.
-	 */
-	private List<Celda> consultarCeldasContiguasBorde(Coordenada coordenada) {
-		List<Celda> celdas = new ArrayList<>();
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-		if (fila == 0 || fila == NUMERO_FILAS - 1) {
-			celdas.add(matriz[fila][columna + 1].clonar());
-			celdas.add(matriz[fila][columna - 1].clonar());
-			if (fila == 0) {
-				celdas.add(matriz[fila + 1][columna].clonar());
-			} else if (fila == NUMERO_FILAS - 1) {
-				celdas.add(matriz[fila - 1][columna].clonar());
-			}
-		} else if (columna == 0 || columna == NUMERO_COLUMNAS - 1) {
-			celdas.add(matriz[fila + 1][columna].clonar());
-			celdas.add(matriz[fila - 1][columna].clonar());
-			if (columna == 0) {
-				celdas.add(matriz[fila][columna + 1].clonar());
-			} else if (columna == NUMERO_COLUMNAS - 1) {
-				celdas.add(matriz[fila][columna - 1].clonar());
-			}
-		}
-		return celdas;
-	}
-
-	/**
-	 * Devuelve un array de una dimensión con las celdas contiguas a la coordenada
-	 * dada si esta está en el centro del tablero.
-	 * 
-	 * @param coordenada Coordenada de la celda.
-	 * @return celdas Array de celdas.
-	 * @see consultarCeldasContiguas Enlace al método consultarCeldasContiguas.
-	 */
-	private List<Celda> consultarCeldasContiguasCentro(Coordenada coordenada) {
-		List<Celda> celdas = new ArrayList<>();
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-		celdas.add(matriz[fila + 1][columna].clonar());
-		celdas.add(matriz[fila - 1][columna].clonar());
-		celdas.add(matriz[fila][columna + 1].clonar());
-		celdas.add(matriz[fila][columna - 1].clonar());
-		return celdas;
-	}
-
 	/**
 	 * Devuelve una lista de celdas con clones en profundidad de todas las celdas
 	 * contiguas a la coordenada dada solo en horizontal. Si la coordenada vale
@@ -318,22 +295,18 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
+		int casilla = consultarCasillaEnTablero(coordenada);
+		int fila = geometria.consultarFila(casilla);
+		int columna = geometria.consultarColumna(casilla);
 		int columnaIzq = columna - 1;
 		int columnaDer = columna + 1;
 
 		List<Celda> celdas = new ArrayList<>();
 		if (columnaIzq >= 0) {
-			celdas.add(matriz[fila][columnaIzq].clonar());
+			celdas.add(construirCelda(geometria.consultarCasilla(fila, columnaIzq)));
 		}
-		if (columnaDer < NUMERO_COLUMNAS) {
-			celdas.add(matriz[fila][columnaDer].clonar());
+		if (columnaDer < geometria.consultarTamaño()) {
+			celdas.add(construirCelda(geometria.consultarCasilla(fila, columnaDer)));
 		}
 		return celdas;
 	}
@@ -355,22 +328,18 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
+		int casilla = consultarCasillaEnTablero(coordenada);
+		int fila = geometria.consultarFila(casilla);
+		int columna = geometria.consultarColumna(casilla);
 		int filaArriba = fila - 1;
 		int filaAbajo = fila + 1;
 
 		List<Celda> celdas = new ArrayList<>();
 		if (filaArriba >= 0) {
-			celdas.add(matriz[filaArriba][columna].clonar());
+			celdas.add(construirCelda(geometria.consultarCasilla(filaArriba, columna)));
 		}
-		if (filaAbajo < NUMERO_FILAS) {
-			celdas.add(matriz[filaAbajo][columna].clonar());
+		if (filaAbajo < geometria.consultarTamaño()) {
+			celdas.add(construirCelda(geometria.consultarCasilla(filaAbajo, columna)));
 		}
 		return celdas;
 	}
@@ -378,24 +347,26 @@ public class Tablero {
 	/**
 	 * Consulta el numero de columnas del tablero.
 	 * 
-	 * @return NUMERO_COLUMNAS Número de columnas.
+	 * @return numeroColumnas Número de columnas.
 	 */
 	public int consultarNumeroColumnas() {
-		return NUMERO_COLUMNAS;
+		return geometria.consultarTamaño();
 	}
 
 	/**
 	 * Consulta el numero de columnas del tablero.
 	 * 
-	 * @return NUMERO_FILAS Número de filas.
+	 * @return numeroFilas Número de filas.
 	 */
 	public int consultarNumeroFilas() {
-		return NUMERO_FILAS;
+		return geometria.consultarTamaño();
 	}
 
 	/**
-	 * Devuelve el número de piezas en el tablero del tipo indicado. Si el tipo de
-	 * pieza vale nulo, lanza una excepción no comprobable IllegalArgumentException.
+	 * Devuelve el número de piezas en el tablero del tipo indicado. El contador se
+	 * mantiene al colocar y eliminar piezas, por lo que no se recorre el tablero.
+	 * Si el tipo de pieza vale nulo, lanza una excepción no comprobable
+	 * IllegalArgumentException.
 	 * 
 	 * @param tipoPieza Tipo de pieza.
 	 * @return contador Número de piezas.
@@ -405,16 +376,7 @@ public class Tablero {
 			throw new IllegalArgumentException("Tipo de pieza nulo");
 		}
 
-		int contador = 0;
-		for (int i = 0; i < matriz.length; i++) {
-			for (int j = 0; j < matriz[i].length; j++) {
-				if (matriz[i][j].consultarPieza() != null
-						&& matriz[i][j].consultarPieza().consultarTipoPieza() == tipoPieza) {
-					contador++;
-				}
-			}
-		}
-		return contador;
+		return numeroPiezas[tipoPieza.ordinal()];
 	}
 
 	/**
@@ -431,24 +393,19 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
-
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
-		}
-
-		matriz[fila][columna].eliminarPieza();
+		vaciarCasilla(consultarCasillaEnTablero(coordenada));
 	}
 
 	/**
-	 * Devuelve la referencia a la celda con la coordenada indicada. Si la
-	 * coordenada vale nulo, lanza una excepción no comprobable
+	 * Devuelve la celda con la coordenada indicada, construida a partir de las
+	 * máscaras del tablero. Al no almacenarse celdas, los cambios sobre la celda
+	 * devuelta no se reflejan en el tablero; para ello se deben usar colocar y
+	 * eliminarPieza. Si la coordenada vale nulo, lanza una excepción no comprobable
 	 * IllegalArgumentException. Si la coordenada no está en el tablero lanza una
 	 * excepción CoordenadasIncorrectasException.
 	 * 
 	 * @param coordenada Coordenada de la celda.
-	 * @return matriz[fila][columna] Celda.
+	 * @return celda Celda de la coordenada.
 	 * @throws CoordenadasIncorrectasException Si las coordenadas son incorrectas.
 	 */
 	public Celda obtenerCelda(Coordenada coordenada) throws CoordenadasIncorrectasException {
@@ -456,14 +413,94 @@ public class Tablero {
 			throw new IllegalArgumentException("Coordenada nula");
 		}
 
-		int fila = coordenada.fila();
-		int columna = coordenada.columna();
+		return construirCelda(consultarCasillaEnTablero(coordenada));
+	}
 
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
-			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
+	/**
+	 * Devuelve el tipo de la pieza colocada en la fila y columna indicadas, o nulo
+	 * si la casilla está vacía o fuera del tablero. Consulta directamente el
+	 * tablero sin crear celdas ni piezas, por lo que es la forma de leerlo sin
+	 * reservar memoria.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return tipoPieza Tipo de la pieza o nulo.
+	 */
+	public TipoPieza consultarTipoPieza(int fila, int columna) {
+		TipoPieza tipoPieza = null;
+		if (geometria.estaEnTablero(fila, columna)) {
+			tipoPieza = consultarTipoPieza(geometria.consultarCasilla(fila, columna));
+		}
+		return tipoPieza;
+	}
+
+	/**
+	 * Devuelve el color de la pieza colocada en la fila y columna indicadas, o
+	 * nulo si la casilla está vacía o fuera del tablero. No crea ningún objeto.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return color Color de la pieza o nulo.
+	 */
+	public Color consultarColorDePieza(int fila, int columna) {
+		Color color = null;
+		TipoPieza tipoPieza = consultarTipoPieza(fila, columna);
+		if (tipoPieza != null) {
+			color = tipoPieza.consultarColor();
 		}
+		return color;
+	}
+
+	/**
+	 * Devuelve el tipo de la celda en la fila y columna indicadas, o nulo si está
+	 * fuera del tablero. No crea ningún objeto.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return tipoCelda Tipo de la celda o nulo.
+	 */
+	public TipoCelda consultarTipoCelda(int fila, int columna) {
+		TipoCelda tipoCelda = null;
+		if (geometria.estaEnTablero(fila, columna)) {
+			tipoCelda = geometria.consultarTipoCelda(geometria.consultarCasilla(fila, columna));
+		}
+		return tipoCelda;
+	}
+
+	/**
+	 * Comprueba si la casilla en la fila y columna indicadas está vacía. Las
+	 * casillas fuera del tablero se consideran vacías. No crea ningún objeto.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return true si no hay pieza, false en caso contrario.
+	 */
+	public boolean estaVacia(int fila, int columna) {
+		return consultarTipoPieza(fila, columna) == null;
+	}
 
-		return matriz[fila][columna];
+	/**
+	 * Devuelve la coordenada de la fila y columna indicadas, reutilizando la
+	 * coordenada compartida si está dentro del tablero.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return coordenada Coordenada de la casilla.
+	 */
+	public static Coordenada consultarCoordenada(int fila, int columna) {
+		return Geometria.consultarCoordenada(fila, columna);
+	}
+
+	/**
+	 * Comprueba si la fila y la columna indicadas están dentro de los límites del
+	 * tablero.
+	 * 
+	 * @param fila    Fila de la casilla.
+	 * @param columna Columna de la casilla.
+	 * @return true si están dentro del tablero, false en caso contrario.
+	 */
+	public boolean estaEnTablero(int fila, int columna) {
+		return geometria.estaEnTablero(fila, columna);
 	}
 
 	/**
@@ -483,18 +520,354 @@ public class Tablero {
 		int fila = coordenada.fila();
 		int columna = coordenada.columna();
 
-		if (fila < 0 || fila >= NUMERO_FILAS || columna < 0 || columna >= NUMERO_COLUMNAS) {
+		if (!geometria.estaEnTablero(fila, columna)) {
 			return false;
 		}
 		return true;
 	}
 
+	/**
+	 * Devuelve el índice de la casilla con la coordenada indicada, o -1 si está
+	 * fuera del tablero. Junto con los métodos que reciben índices de casilla
+	 * (consultarTipoPieza, colocarPieza, eliminarPieza...) forma la alternativa a
+	 * los métodos con coordenadas que no lanza CoordenadasIncorrectasException.
+	 * Si la coordenada vale nulo, lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param coordenada Coordenada de la casilla.
+	 * @return casilla Índice de la casilla o -1.
+	 */
+	public int consultarCasilla(Coordenada coordenada) {
+		if (coordenada == null) {
+			throw new IllegalArgumentException("Coordenada nula");
+		}
+		if (!geometria.estaEnTablero(coordenada.fila(), coordenada.columna())) {
+			return -1;
+		}
+		return geometria.consultarCasilla(coordenada.fila(), coordenada.columna());
+	}
+
+	/**
+	 * Devuelve la geometría del tablero, con las relaciones precalculadas entre
+	 * sus casillas.
+	 * 
+	 * @return geometria Geometría del tablero.
+	 */
+	public Geometria consultarGeometria() {
+		return geometria;
+	}
+
+	/**
+	 * Devuelve una copia de la máscara de bits con las casillas ocupadas por el
+	 * tipo de pieza indicado. Si el tipo de pieza vale nulo, lanza una excepción
+	 * no comprobable IllegalArgumentException.
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @return mascara Copia de la máscara del tipo de pieza.
+	 */
+	public long[] consultarMascara(TipoPieza tipoPieza) {
+		if (tipoPieza == null) {
+			throw new IllegalArgumentException("Tipo de pieza nulo");
+		}
+		return piezas[tipoPieza.ordinal()].clone();
+	}
+
+	/**
+	 * Devuelve una copia de la máscara de bits con todas las casillas ocupadas.
+	 * 
+	 * @return ocupadas Copia de la máscara de casillas ocupadas.
+	 */
+	public long[] consultarMascaraOcupadas() {
+		return ocupadas.clone();
+	}
+
+	/**
+	 * Copia en el array indicado la máscara de bits con las casillas ocupadas por
+	 * el tipo de pieza dado, sin reservar memoria. El array debe tener al menos
+	 * consultarGeometria().consultarNumeroPalabras() posiciones.
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @param resultado Array donde se copia la máscara.
+	 */
+	public void consultarMascara(TipoPieza tipoPieza, long[] resultado) {
+		System.arraycopy(piezas[tipoPieza.ordinal()], 0, resultado, 0, ocupadas.length);
+	}
+
+	/**
+	 * Copia en el array indicado la máscara de bits con las casillas ocupadas por
+	 * piezas del color dado, sin reservar memoria. El array debe tener al menos
+	 * consultarGeometria().consultarNumeroPalabras() posiciones.
+	 * 
+	 * @param color     Color de las piezas.
+	 * @param resultado Array donde se copia la máscara.
+	 */
+	public void consultarMascara(Color color, long[] resultado) {
+		System.arraycopy(colores[color.ordinal()], 0, resultado, 0, ocupadas.length);
+	}
+
+	/**
+	 * Copia en el array indicado la máscara de bits con todas las casillas
+	 * ocupadas, sin reservar memoria.
+	 * 
+	 * @param resultado Array donde se copia la máscara.
+	 */
+	public void consultarMascaraOcupadas(long[] resultado) {
+		System.arraycopy(ocupadas, 0, resultado, 0, ocupadas.length);
+	}
+
+	/**
+	 * Devuelve el índice de la casilla en la que está el rey, o -1 si no está en
+	 * el tablero. La máscara del rey se actualiza con cada colocación, movimiento
+	 * o eliminación de pieza, así que basta con localizar su único bit.
+	 * 
+	 * @return casilla Índice de la casilla del rey o -1.
+	 */
+	public int consultarCasillaRey() {
+		return Geometria.consultarSiguiente(piezas[TipoPieza.REY.ordinal()], 0);
+	}
+
+	/**
+	 * Devuelve la primera casilla a partir de la indicada (incluida) que tiene una
+	 * pieza del color dado, o -1 si no hay más. Permite recorrer las piezas de un
+	 * jugador con un coste proporcional al número de piezas y no al tamaño del
+	 * tablero.
+	 * 
+	 * @param color Color de las piezas.
+	 * @param desde Índice de la casilla desde la que se busca.
+	 * @return casilla Índice de la siguiente casilla con una pieza del color o -1.
+	 */
+	public int consultarSiguientePieza(Color color, int desde) {
+		return Geometria.consultarSiguiente(colores[color.ordinal()], desde);
+	}
+
+	/**
+	 * Devuelve la primera casilla ocupada que se encuentra al avanzar desde la
+	 * casilla indicada en el sentido dado, o -1 si no hay ninguna hasta el borde.
+	 * 
+	 * @param sentido Sentido del avance.
+	 * @param casilla Índice de la casilla de partida.
+	 * @return casilla Índice de la primera casilla ocupada o -1.
+	 */
+	public int consultarPrimeraOcupada(Sentido sentido, int casilla) {
+		return geometria.consultarPrimeraEnRayo(sentido, casilla, ocupadas);
+	}
+
+	/**
+	 * Comprueba si la casilla indicada tiene alguna pieza. No se comprueba que la
+	 * casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return true si está ocupada, false en caso contrario.
+	 */
+	public boolean estaOcupada(int casilla) {
+		return Geometria.estaMarcada(ocupadas, casilla);
+	}
+
+	/**
+	 * Devuelve la clave Zobrist de las piezas colocadas en el tablero. No incluye
+	 * el turno, que lo conoce el árbitro.
+	 * 
+	 * @return clave Clave Zobrist del tablero.
+	 */
+	public long consultarClaveZobrist() {
+		return clave;
+	}
+
+	/**
+	 * Devuelve el tipo de la pieza colocada en la casilla indicada, o nulo si está
+	 * vacía. No se comprueba que la casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla (fila * número de columnas + columna).
+	 * @return tipoPieza Tipo de la pieza o nulo.
+	 */
+	public TipoPieza consultarTipoPieza(int casilla) {
+		TipoPieza tipoPieza = null;
+		if (estaOcupada(casilla)) {
+			if (Geometria.estaMarcada(piezas[TipoPieza.ATACANTE.ordinal()], casilla)) {
+				tipoPieza = TipoPieza.ATACANTE;
+			} else if (Geometria.estaMarcada(piezas[TipoPieza.DEFENSOR.ordinal()], casilla)) {
+				tipoPieza = TipoPieza.DEFENSOR;
+			} else {
+				tipoPieza = TipoPieza.REY;
+			}
+		}
+		return tipoPieza;
+	}
+
+	/**
+	 * Devuelve el tipo de celda de la casilla indicada. No se comprueba que la
+	 * casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla (fila * número de columnas + columna).
+	 * @return tipoCelda Tipo de la celda.
+	 */
+	public TipoCelda consultarTipoCelda(int casilla) {
+		return geometria.consultarTipoCelda(casilla);
+	}
+
+	/**
+	 * Devuelve la coordenada compartida de la casilla indicada. No se comprueba
+	 * que la casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla (fila * número de columnas + columna).
+	 * @return coordenada Coordenada de la casilla.
+	 */
+	public Coordenada consultarCoordenada(int casilla) {
+		return geometria.consultarCoordenada(casilla);
+	}
+
+	/**
+	 * Mueve la pieza de la casilla origen a la casilla destino, que debe estar
+	 * vacía. Pensado para los árbitros, que ya han validado la jugada: no se
+	 * comprueba que las casillas estén en el tablero ni que el origen esté
+	 * ocupado.
+	 * 
+	 * @param origen  Índice de la casilla origen.
+	 * @param destino Índice de la casilla destino.
+	 */
+	public void moverPieza(int origen, int destino) {
+		TipoPieza tipoPieza = consultarTipoPieza(origen);
+		if (tipoPieza != null) {
+			vaciarCasilla(origen);
+			colocarPieza(tipoPieza, destino);
+		}
+	}
+
+	/**
+	 * Coloca una pieza del tipo indicado en la casilla, que debe estar vacía. No
+	 * se comprueba que la casilla esté en el tablero. Sirve para devolver al
+	 * tablero piezas capturadas.
+	 * 
+	 * @param tipoPieza Tipo de la pieza a colocar.
+	 * @param casilla   Índice de la casilla.
+	 */
+	public void colocarPieza(TipoPieza tipoPieza, int casilla) {
+		Geometria.marcar(piezas[tipoPieza.ordinal()], casilla);
+		Geometria.marcar(colores[tipoPieza.consultarColor().ordinal()], casilla);
+		Geometria.marcar(ocupadas, casilla);
+		clave ^= Zobrist.consultarClave(tipoPieza, casilla);
+		numeroPiezas[tipoPieza.ordinal()]++;
+		tiposModificados |= 1 << tipoPieza.ordinal();
+	}
+
+	/**
+	 * Retira la pieza de la casilla indicada, si la hay. No se comprueba que la
+	 * casilla esté en el tablero.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 */
+	public void eliminarPieza(int casilla) {
+		vaciarCasilla(casilla);
+	}
+
+	/**
+	 * Devuelve las casillas que cambian del tablero anterior indicado a este, con
+	 * el tipo de pieza de cada una en los dos tableros. Las casillas cambiadas se
+	 * obtienen palabra a palabra con el XOR de las máscaras de cada tipo de pieza,
+	 * por lo que solo se consultan las casillas que de verdad cambian. El tablero
+	 * anterior puede ser otro tablero o una versión previa de este obtenida con
+	 * clonar. Si vale nulo o es de otro tamaño, lanza una excepción no comprobable
+	 * IllegalArgumentException.
+	 * 
+	 * @param anterior Tablero anterior.
+	 * @return diferencia Cambios para pasar del tablero anterior a este.
+	 */
+	public DiferenciaTablero consultarDiferencias(Tablero anterior) {
+		if (anterior == null) {
+			throw new IllegalArgumentException("Tablero nulo");
+		}
+		if (anterior.geometria != geometria) {
+			throw new IllegalArgumentException("El tablero es de otro tamaño");
+		}
+		int numero = 0;
+		for (int palabra = 0; palabra < ocupadas.length; palabra++) {
+			numero += Long.bitCount(consultarPalabraCambiada(anterior, palabra));
+		}
+		int[] cambios = new int[numero];
+		int indice = 0;
+		for (int palabra = 0; palabra < ocupadas.length && indice < numero; palabra++) {
+			long cambiadas = consultarPalabraCambiada(anterior, palabra);
+			while (cambiadas != 0) {
+				int casilla = palabra * Long.SIZE + Long.numberOfTrailingZeros(cambiadas);
+				cambios[indice++] = DiferenciaTablero.codificar(casilla, anterior.consultarTipoPieza(casilla),
+						consultarTipoPieza(casilla));
+				cambiadas &= cambiadas - 1;
+			}
+		}
+		return new DiferenciaTablero(geometria, cambios);
+	}
+
+	/**
+	 * Devuelve la palabra indicada de la máscara de casillas cuyo contenido es
+	 * distinto en el tablero anterior: el OR de los XOR de las máscaras de cada
+	 * tipo de pieza.
+	 * 
+	 * @param anterior Tablero anterior, del mismo tamaño.
+	 * @param palabra  Índice de la palabra.
+	 * @return cambiadas Palabra de la máscara de casillas cambiadas.
+	 */
+	private long consultarPalabraCambiada(Tablero anterior, int palabra) {
+		long cambiadas = 0;
+		for (int tipo = 0; tipo < piezas.length; tipo++) {
+			cambiadas |= piezas[tipo][palabra] ^ anterior.piezas[tipo][palabra];
+		}
+		return cambiadas;
+	}
+
+	/**
+	 * Devuelve el índice de la casilla con la coordenada indicada. Es la única
+	 * comprobación con excepción de los métodos con coordenadas, que quedan como
+	 * envoltorios de los métodos con índices de casilla.
+	 * 
+	 * @param coordenada Coordenada de la casilla, ya comprobada que no es nula.
+	 * @return casilla Índice de la casilla.
+	 * @throws CoordenadasIncorrectasException Si la coordenada está fuera del
+	 *                                         tablero.
+	 */
+	private int consultarCasillaEnTablero(Coordenada coordenada) throws CoordenadasIncorrectasException {
+		int casilla = consultarCasilla(coordenada);
+		if (casilla < 0) {
+			throw new CoordenadasIncorrectasException("Coordenada fuera del tablero");
+		}
+		return casilla;
+	}
+
+	/**
+	 * Construye una celda independiente del tablero con el contenido actual de la
+	 * casilla indicada. Se asume que la casilla ya ha sido validada.
+	 * 
+	 * @param casilla Índice de la casilla.
+	 * @return celda Celda construida.
+	 */
+	private Celda construirCelda(int casilla) {
+		Celda celda = new Celda(geometria.consultarCoordenada(casilla), geometria.consultarTipoCelda(casilla));
+		TipoPieza tipoPieza = consultarTipoPieza(casilla);
+		if (tipoPieza != null) {
+			celda.colocar(Pieza.obtenerPieza(tipoPieza));
+		}
+		return celda;
+	}
+
+	/**
+	 * Retira cualquier pieza de la casilla indicada.
+	 * 
+	 * @param casilla Índice de la casilla (fila * número de columnas + columna).
+	 */
+	private void vaciarCasilla(int casilla) {
+		TipoPieza tipoPieza = consultarTipoPieza(casilla);
+		if (tipoPieza != null) {
+			Geometria.desmarcar(piezas[tipoPieza.ordinal()], casilla);
+			Geometria.desmarcar(colores[tipoPieza.consultarColor().ordinal()], casilla);
+			Geometria.desmarcar(ocupadas, casilla);
+			clave ^= Zobrist.consultarClave(tipoPieza, casilla);
+			numeroPiezas[tipoPieza.ordinal()]--;
+			tiposModificados |= 1 << tipoPieza.ordinal();
+		}
+	}
+
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + Arrays.deepHashCode(matriz);
-		return result;
+		return Long.hashCode(clave);
 	}
 
 	@Override
@@ -506,11 +879,14 @@ public class Tablero {
 		if (getClass() != obj.getClass())
 			return false;
 		Tablero other = (Tablero) obj;
-		return Arrays.deepEquals(matriz, other.matriz);
+		return geometria == other.geometria && Arrays.deepEquals(piezas, other.piezas);
 	}
 
 	@Override
 	public String toString() {
-		return "Tablero [matriz=" + Arrays.toString(matriz) + "]";
+		return "Tablero [tamaño=" + geometria.consultarTamaño() + ", atacantes="
+				+ Arrays.toString(piezas[TipoPieza.ATACANTE.ordinal()]) + ", defensores="
+				+ Arrays.toString(piezas[TipoPieza.DEFENSOR.ordinal()]) + ", rey="
+				+ Arrays.toString(piezas[TipoPieza.REY.ordinal()]) + "]";
 	}
 }
@@ -0,0 +1,75 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.modelo;
+
+import tafl.util.TipoPieza;
+
+/**
+ * Clase Zobrist. Tablas de claves aleatorias de 64 bits para calcular la clave
+ * Zobrist de una posición: la clave es el XOR de las claves de cada pieza en su
+ * casilla, más la clave del turno si mueven las blancas. Al ser un XOR, colocar
+ * o quitar una pieza actualiza la clave en tiempo constante.
+ * 
+ * Las claves se generan siempre con la misma semilla, por lo que una misma
+ * posición tiene la misma clave en todas las ejecuciones.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public final class Zobrist {
+	/**
+	 * Semilla fija del generador de claves.
+	 */
+	private static final long SEMILLA = 0x5DEECE66DL;
+	/**
+	 * Claves de cada tipo de pieza (por ordinal) en cada casilla del tablero. Se
+	 * reservan para el tablero más grande, y los más pequeños usan las primeras.
+	 */
+	private static final long[][] CLAVES = new long[TipoPieza.values().length][Geometria.NUMERO_MAXIMO_CASILLAS];
+	/**
+	 * Clave que se añade cuando el turno es de las piezas blancas.
+	 */
+	public static final long CLAVE_TURNO_BLANCO;
+
+	static {
+		long estado = SEMILLA;
+		for (int i = 0; i < CLAVES.length; i++) {
+			for (int j = 0; j < CLAVES[i].length; j++) {
+				estado += 0x9E3779B97F4A7C15L;
+				CLAVES[i][j] = mezclar(estado);
+			}
+		}
+		estado += 0x9E3779B97F4A7C15L;
+		CLAVE_TURNO_BLANCO = mezclar(estado);
+	}
+
+	/**
+	 * Oculta el constructor por defecto.
+	 */
+	private Zobrist() {
+	}
+
+	/**
+	 * Devuelve la clave de una pieza del tipo indicado en la casilla indicada.
+	 * 
+	 * @param tipoPieza Tipo de pieza.
+	 * @param casilla   Índice de la casilla (fila * número de columnas + columna).
+	 * @return clave Clave de la pieza en la casilla.
+	 */
+	public static long consultarClave(TipoPieza tipoPieza, int casilla) {
+		return CLAVES[tipoPieza.ordinal()][casilla];
+	}
+
+	/**
+	 * Función de mezcla de SplitMix64. Convierte un contador en un valor
+	 * pseudoaleatorio de 64 bits bien distribuido.
+	 * 
+	 * @param valor Valor a mezclar.
+	 * @return valor Valor mezclado.
+	 */
+	private static long mezclar(long valor) {
+		valor = (valor ^ (valor >>> 30)) * 0xBF58476D1CE4E5B9L;
+		valor = (valor ^ (valor >>> 27)) * 0x94D049BB133111EBL;
+		return valor ^ (valor >>> 31);
+	}
+}
@@ -99,6 +99,10 @@ public class Tafl {
 							} else {
 								cambiarTurnoPartida();
 								mostrarTablero();
+								if (comprobarBloqueo()) {
+									mostrarGanadorPorBloqueo();
+									salir = true;
+								}
 							}
 						} else {
 							mostrarErrorPorMovimientoIlegal(textoJugada);
@@ -267,10 +271,21 @@ public class Tafl {
 	/**
 	 * Comprueba si está finalizada la partida.
 	 * 
-	 * @return true si hay victoria de atacante o defensor, false en caso contrario
+	 * @return true si hay victoria de atacante o defensor, o tablas, false en caso
+	 *         contrario
 	 */
 	private static boolean comprobarFinalizacionPartida() {
-		return arbitro.haGanadoAtacante() || arbitro.haGanadoRey();
+		return arbitro.haGanadoAtacante() || arbitro.haGanadoRey() || arbitro.hayTablas();
+	}
+
+	/**
+	 * Comprueba si el jugador al que le toca mover no tiene ninguna jugada legal,
+	 * en cuyo caso pierde la partida.
+	 * 
+	 * @return true si el turno actual no puede mover, false en caso contrario
+	 */
+	private static boolean comprobarBloqueo() {
+		return !arbitro.tieneJugadasLegales();
 	}
 
 	/**
@@ -322,11 +337,23 @@ public class Tafl {
 		} else if (arbitro.haGanadoRey()) {
 			System.out.printf("%nHa ganado la partida el jugador defensor con piezas de color %s.%n",
 					arbitro.consultarTurno());
+		} else if (arbitro.hayTablas()) {
+			System.out.println("\nNo hay ganador: la partida termina en tablas.");
 		} else {
 			System.out.println("\nNo hay ganador.");
 		}
 	}
 
+	/**
+	 * Muestra en pantalla el ganador de una partida terminada porque el jugador
+	 * al que le toca mover no puede hacerlo.
+	 */
+	private static void mostrarGanadorPorBloqueo() {
+		System.out.printf("%nEl jugador con piezas de color %s no puede mover.%n", arbitro.consultarTurno());
+		System.out.printf("Ha ganado la partida el jugador con piezas de color %s.%n",
+				arbitro.consultarTurno().consultarContrario());
+	}
+
 	/**
 	 * Muestra la información de error en el formato de entrada, mostrando ejemplos.
 	 */
@@ -0,0 +1,27 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.util;
+
+/**
+ * CapturaRey indica cómo se captura al rey en una variante del juego.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public enum CapturaRey {
+	/**
+	 * El rey se captura por custodia en cualquier casilla, como las demás piezas.
+	 */
+	CUSTODIA,
+	/**
+	 * En el trono y en las casillas contiguas al trono hay que rodear al rey con
+	 * atacantes en todas sus casillas contiguas salvo el trono; en el resto se
+	 * captura por custodia.
+	 */
+	RODEO_JUNTO_AL_TRONO,
+	/**
+	 * En cualquier casilla hay que rodear al rey con atacantes en todas sus
+	 * casillas contiguas salvo el trono.
+	 */
+	RODEO;
+}
@@ -0,0 +1,21 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.util;
+
+/**
+ * EscapeRey indica qué casillas debe alcanzar el rey para ganar la partida en
+ * una variante del juego.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public enum EscapeRey {
+	/**
+	 * El rey gana al llegar a una de las cuatro provincias de las esquinas.
+	 */
+	PROVINCIAS,
+	/**
+	 * El rey gana al llegar a cualquier casilla del borde del tablero.
+	 */
+	BORDE;
+}
@@ -0,0 +1,56 @@
+// Paquete en donde se encuentra el archivo.
+package tafl.util;
+
+/**
+ * MotivoRechazo indica por qué una jugada no es legal, o NINGUNO si lo es. Lo
+ * devuelve el árbitro al validar jugadas sin lanzar excepciones, de forma que
+ * el resultado se puede consultar en bucles de validación sin el coste de
+ * construir excepciones.
+ * 
+ * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
+ * @version 1.0
+ * @serial 2026/10/18
+ */
+public enum MotivoRechazo {
+	/**
+	 * La jugada es legal.
+	 */
+	NINGUNO,
+	/**
+	 * La casilla origen o la casilla destino están fuera del tablero.
+	 */
+	FUERA_DEL_TABLERO,
+	/**
+	 * No hay ninguna pieza en la casilla origen.
+	 */
+	ORIGEN_VACIO,
+	/**
+	 * La pieza de la casilla origen no es del color del turno.
+	 */
+	PIEZA_SIN_TURNO,
+	/**
+	 * La casilla destino ya tiene una pieza.
+	 */
+	DESTINO_OCUPADO,
+	/**
+	 * La casilla destino es el trono o una provincia y la pieza no es el rey.
+	 */
+	CASILLA_RESERVADA,
+	/**
+	 * El origen y el destino no están en la misma fila o columna, o el sentido
+	 * de la jugada no lleva del origen al destino.
+	 */
+	NO_ALINEADO,
+	/**
+	 * El destino está más lejos de lo que permite el juego en una jugada.
+	 */
+	FUERA_DE_ALCANCE,
+	/**
+	 * Hay alguna pieza entre el origen y el destino.
+	 */
+	CAMINO_BLOQUEADO,
+	/**
+	 * La pieza quedaría entre dos casillas hostiles en la misma fila o columna.
+	 */
+	ENTRE_DOS_HOSTILES;
+}
@@ -67,4 +67,28 @@ public enum Sentido {
 	public int consultarDesplazamientoEnColumnas() {
 		return this.desplazamientoEnColumnas;
 	}
+
+	/**
+	 * Sirve para consultar el sentido contrario al actual.
+	 * 
+	 * @return sentido Sentido que deshace el desplazamiento del actual.
+	 */
+	public Sentido consultarOpuesto() {
+		Sentido sentido = null;
+		switch (this) {
+		case VERTICAL_N:
+			sentido = VERTICAL_S;
+			break;
+		case VERTICAL_S:
+			sentido = VERTICAL_N;
+			break;
+		case HORIZONTAL_E:
+			sentido = HORIZONTAL_O;
+			break;
+		case HORIZONTAL_O:
+			sentido = HORIZONTAL_E;
+			break;
+		}
+		return sentido;
+	}
 }
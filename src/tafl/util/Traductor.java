@@ -3,14 +3,21 @@ package tafl.util;
 
 /**
  * Clase Traductor. Traducción de texto en notación algebraica a coordenadas, y
- * al revés, de coordenadas a texto en notación algebraica. Siempre se considera
- * que el tablero es de tamaño 7x7 celdas.
+ * al revés, de coordenadas a texto en notación algebraica. Por defecto se
+ * considera que el tablero es de tamaño 7x7 celdas; para tableros mayores se
+ * indica el tamaño y los números de fila pueden ocupar dos caracteres (por
+ * ejemplo "s19" en el tablero de 19x19).
  * 
  * @author <a href="mailto:jgc1031@alu.ubu.es">José Gallardo Caballero</a>
  * @version 1.0
  * @serial 2023/10/25
  */
 public class Traductor {
+	/**
+	 * Tamaño del tablero que se usa cuando no se indica ninguno.
+	 */
+	private static final int TAMAÑO_POR_DEFECTO = 7;
+
 	/**
 	 * Constructor de la clase. Para evitar warning en la documentación.
 	 */
@@ -26,13 +33,26 @@ public class Traductor {
 	 * @return Coordenada Coordenada correspondiente al texto.
 	 */
 	public static Coordenada consultarCoordenadaParaNotacionAlgebraica(String texto) {
-		if (esTextoCorrectoParaCoordenada(texto)) {
+		return consultarCoordenadaParaNotacionAlgebraica(texto, TAMAÑO_POR_DEFECTO);
+	}
+
+	/**
+	 * Función estática. Retorna la coordenada correspondiente si el texto pasado
+	 * es correcto en notación algebraica para un tablero del tamaño indicado. En
+	 * caso contrario retorna un nulo.
+	 * 
+	 * @param texto  Texto con la letra de la columna y el número de la fila.
+	 * @param tamaño Número de filas y de columnas del tablero.
+	 * @return Coordenada Coordenada correspondiente al texto.
+	 */
+	public static Coordenada consultarCoordenadaParaNotacionAlgebraica(String texto, int tamaño) {
+		if (esTextoCorrectoParaCoordenada(texto, tamaño)) {
 			// Se obtiene la letra y el número.
 			char letra = texto.charAt(0);
-			char numero = texto.charAt(1);
+			int numero = Integer.parseInt(texto.substring(1));
 			int fila = 0, columna = 0;
 			// Se obtiene la fila y la columna.
-			fila = obtenerFila(numero);
+			fila = obtenerFila(numero, tamaño);
 			columna = obtenerColumna(letra);
 			// Se retorna la coordenada.
 			return new Coordenada(fila, columna);
@@ -49,12 +69,25 @@ public class Traductor {
 	 * @return texto Texto de longitud 2 carácteres en notación algebraica.
 	 */
 	public static String consultarTextoEnNotacionAlgebraica(Coordenada coordenada) {
-		if (coordenada != null && (coordenada.fila() >= 0 && coordenada.fila() <= 6)
-				&& (coordenada.columna() >= 0 && coordenada.columna() <= 6)) {
+		return consultarTextoEnNotacionAlgebraica(coordenada, TAMAÑO_POR_DEFECTO);
+	}
+
+	/**
+	 * Función estática. Retorna el texto en notación algebraica correspondiente a
+	 * una coordenada de un tablero del tamaño indicado. Si la coordenada es nula o
+	 * está fuera del tablero, retorna un valor nulo.
+	 * 
+	 * @param coordenada Coordenada a traducir.
+	 * @param tamaño     Número de filas y de columnas del tablero.
+	 * @return texto Texto en notación algebraica.
+	 */
+	public static String consultarTextoEnNotacionAlgebraica(Coordenada coordenada, int tamaño) {
+		if (coordenada != null && (coordenada.fila() >= 0 && coordenada.fila() < tamaño)
+				&& (coordenada.columna() >= 0 && coordenada.columna() < tamaño)) {
 			String texto = "";
 			// Se obtiene la letra y el número.
 			char letra = obtenerLetra(coordenada.columna(), coordenada);
-			char numero = obtenerNumero(coordenada.fila(), coordenada);
+			int numero = obtenerNumero(coordenada.fila(), tamaño);
 			// Se concatena la letra y el número.
 			texto += letra;
 			texto += numero;
@@ -74,12 +107,35 @@ public class Traductor {
 	 * @return true Devuelve True si cumple los requerminientos.
 	 */
 	public static boolean esTextoCorrectoParaCoordenada(String texto) {
-		if (texto != null && texto.length() == 2) {
+		return esTextoCorrectoParaCoordenada(texto, TAMAÑO_POR_DEFECTO);
+	}
+
+	/**
+	 * Función estática. Comprueba que el texto dado no sea nulo y que se
+	 * corresponde en notación algebraica con una coordenada válida de un tablero
+	 * del tamaño indicado: una letra entre la 'a' y la de la última columna,
+	 * seguida del número de fila, sin ceros a la izquierda.
+	 * 
+	 * @param texto  Texto a comprobar.
+	 * @param tamaño Número de filas y de columnas del tablero.
+	 * @return true Devuelve True si cumple los requerminientos.
+	 */
+	public static boolean esTextoCorrectoParaCoordenada(String texto, int tamaño) {
+		int digitos = String.valueOf(tamaño).length();
+		if (texto != null && texto.length() >= 2 && texto.length() <= 1 + digitos) {
 			char letra = texto.charAt(0);
-			char numero = texto.charAt(1);
-			if (letra >= 'a' && letra <= 'g' && numero >= '1' && numero <= '7') {
-				return true;
+			if (letra < 'a' || letra >= 'a' + tamaño || texto.charAt(1) == '0') {
+				return false;
+			}
+			int numero = 0;
+			for (int i = 1; i < texto.length(); i++) {
+				char caracter = texto.charAt(i);
+				if (caracter < '0' || caracter > '9') {
+					return false;
+				}
+				numero = numero * 10 + (caracter - '0');
 			}
+			return numero >= 1 && numero <= tamaño;
 		}
 		return false;
 	}
@@ -88,12 +144,13 @@ public class Traductor {
 	 * FUNCIÓN PROPIA. Sirve para obtener la fila de la coordenada.
 	 * 
 	 * @param numero Número de la coordenada.
+	 * @param tamaño Número de filas del tablero.
 	 * @return fila Devuelve la fila de la coordenada.
 	 */
-	private static int obtenerFila(char numero) {
-		// Se resta '7' al número de la coordenada para obtener la fila de la
-		// coordenada.
-		int fila = '7' - numero;
+	private static int obtenerFila(int numero, int tamaño) {
+		// Se resta el número de la coordenada al número de filas para obtener la fila
+		// de la coordenada.
+		int fila = tamaño - numero;
 		return fila;
 	}
 
@@ -126,14 +183,14 @@ public class Traductor {
 	/**
 	 * FUNCIÓN PROPIA. Sirve para obtener el número de la coordenada.
 	 * 
-	 * @param fila       Fila de la coordenada.
-	 * @param coordenada Coordenada.
+	 * @param fila   Fila de la coordenada.
+	 * @param tamaño Número de filas del tablero.
 	 * @return numero Devuelve el número de la coordenada.
 	 */
-	private static char obtenerNumero(int fila, Coordenada coordenada) {
-		// Se resta el número de la fila a 7 para obtener el número de la coordenada.
-		// lo de (char) es para por si acaso.
-		char numero = (char) ('7' - coordenada.fila());
+	private static int obtenerNumero(int fila, int tamaño) {
+		// Se resta el número de la fila al número de filas para obtener el número de
+		// la coordenada.
+		int numero = tamaño - fila;
 		return numero;
 	}
 }